@@ -0,0 +1,9 @@
+-- Version stamps behind the transaction ETags; production validates the schema
+-- rather than creating it, so apply this to existing databases before deploying
+CREATE TABLE IF NOT EXISTS transaction_month_versions (
+    customer_id VARCHAR(12)  NOT NULL,
+    month_key   VARCHAR(7)   NOT NULL,
+    version     BIGINT       NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (customer_id, month_key)
+);
@@ -0,0 +1,207 @@
+package com.nadeemr.ebanking.api.controller;
+
+import com.nadeemr.ebanking.api.dto.TransactionPageDto;
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.service.ReactiveTransactionService;
+import com.nadeemr.ebanking.domain.service.TransactionVersionService;
+import com.nadeemr.ebanking.infrastructure.repository.ReactiveTransactionReader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link TransactionController}, serving the same read endpoints
+ * when the application runs in the reactive deployment mode
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/transactions")
+@Validated
+@Tag(name = "Transactions", description = "Transaction management APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class ReactiveTransactionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionController.class);
+
+    // In the order of WebFlux's default Jackson encoders
+    private static final List<MediaType> PAGE_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "x-jackson-smile"));
+
+    private final ReactiveTransactionService transactionService;
+    private final ReactiveTransactionReader transactionReader;
+    private final TransactionVersionService transactionVersionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService,
+                                         ReactiveTransactionReader transactionReader,
+                                         TransactionVersionService transactionVersionService) {
+        this.transactionService = transactionService;
+        this.transactionReader = transactionReader;
+        this.transactionVersionService = transactionVersionService;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Get paginated transactions for the authenticated customer",
+        description = "Returns a paginated list of transactions for a specific calendar month with currency conversion"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved transactions",
+            content = @Content(mediaType = "application/json",
+                             schema = @Schema(implementation = TransactionPageDto.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Transactions unchanged since the ETag sent in If-None-Match"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request parameters",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Invalid or missing JWT token",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public Mono<ResponseEntity<TransactionPageDto>> getTransactions(
+            @Parameter(description = "Year and month in YYYY-MM format", required = true, example = "2023-10")
+            @RequestParam("yearMonth")
+            @Pattern(regexp = "^\\d{4}-\\d{2}$", message = "Date must be in YYYY-MM format")
+            String yearMonth,
+
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(value = "page", defaultValue = "0")
+            int page,
+
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(value = "size", defaultValue = "20")
+            int size,
+
+            @Parameter(description = "Base currency for conversion", example = "EUR")
+            @RequestParam(value = "baseCurrency", defaultValue = "EUR")
+            @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be a valid 3-letter code")
+            String baseCurrency,
+
+            @Parameter(description = "Filter by account IBAN (optional)")
+            @RequestParam(value = "accountIban", required = false)
+            @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{4}[0-9]{7}([A-Z0-9]?){0,16}$", message = "Invalid IBAN format")
+            String accountIban,
+
+            @Parameter(description = "Comma separated sparse fieldset (optional), e.g. id,amount,valueDate or summary; "
+                    + "stages whose fields are not requested are skipped", example = "id,amount,valueDate")
+            @RequestParam(value = "fields", required = false)
+            @Pattern(regexp = "^[A-Za-z.,\\s]*$", message = "Fields must be a comma separated list of field names")
+            String fields,
+
+            ServerWebExchange exchange) {
+
+        // Create search criteria
+        TransactionSearchDto searchCriteria = new TransactionSearchDto(yearMonth, page, size, baseCurrency);
+        searchCriteria.setAccountIban(accountIban);
+        searchCriteria.setFields(fields);
+
+        return customerId().flatMap(customerId -> {
+            logger.info("Getting transactions for customer {} for month {} (page: {}, size: {})",
+                       customerId, yearMonth, page, size);
+
+            // Answer polling clients from the month version alone when nothing has changed; each
+            // rendering has its own tag
+            String mediaType = ResponseMediaTypes.negotiate(
+                    exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT), PAGE_MEDIA_TYPES).toString();
+            exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return transactionReader.findVersion(customerId, YearMonth.parse(yearMonth).toString())
+                    .map(version -> transactionVersionService.getETag(customerId, searchCriteria, version, mediaType))
+                    .flatMap(eTag -> {
+                        if (eTag.isPresent() && exchange.checkNotModified(eTag.get())) {
+                            logger.debug("Transactions for customer {} in month {} not modified", customerId, yearMonth);
+                            return Mono.empty();
+                        }
+                        return transactionService.getTransactions(customerId, searchCriteria)
+                                .map(result -> respond(customerId, result, eTag));
+                    });
+        });
+    }
+
+    @PostMapping("/search")
+    @Operation(
+        summary = "Search transactions with advanced criteria",
+        description = "Search transactions using POST method for complex search criteria"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved transactions",
+            content = @Content(mediaType = "application/json",
+                             schema = @Schema(implementation = TransactionPageDto.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid search criteria",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Invalid or missing JWT token",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public Mono<ResponseEntity<TransactionPageDto>> searchTransactions(
+            @Parameter(description = "Transaction search criteria", required = true)
+            @Valid @RequestBody TransactionSearchDto searchCriteria) {
+
+        return customerId().flatMap(customerId -> {
+            logger.info("Searching transactions for customer {} with criteria: {}", customerId, searchCriteria);
+
+            return transactionService.getTransactions(customerId, searchCriteria)
+                    .map(result -> respond(customerId, result, Optional.empty()));
+        });
+    }
+
+    /**
+     * Authenticated customer ID from the JWT token
+     */
+    private static Mono<String> customerId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> context.getAuthentication().getName());
+    }
+
+    private static ResponseEntity<TransactionPageDto> respond(String customerId, TransactionPageDto result,
+                                                              Optional<String> eTag) {
+        logger.info("Retrieved {} transactions for customer {}",
+                   result.getTransactions() != null ? result.getTransactions().size() : 0, customerId);
+
+        if (eTag.isEmpty()) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag.get())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(result);
+    }
+}
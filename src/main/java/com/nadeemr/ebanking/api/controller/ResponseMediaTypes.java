@@ -0,0 +1,43 @@
+package com.nadeemr.ebanking.api.controller;
+
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Works out ahead of the message converters which media type a response will be written in,
+ * so the entity tag can tell the JSON, CBOR and Smile renderings of the same page apart.
+ */
+final class ResponseMediaTypes {
+
+    private ResponseMediaTypes() {
+    }
+
+    /**
+     * The producible type the converters would pick for the Accept header: the highest quality
+     * acceptable one, ties going to the order accepted and then to the order produced.
+     * Falls back to the first producible type, which is also the answer when nothing is acceptable
+     * and the request fails with 406 anyway.
+     */
+    static MediaType negotiate(String accept, List<MediaType> producible) {
+        if (accept == null || accept.isBlank()) {
+            return producible.get(0);
+        }
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+            for (MediaType type : producible) {
+                if (accepted.isCompatibleWith(type)) {
+                    compatible.add(type.copyQualityValue(accepted));
+                }
+            }
+        }
+        return compatible.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(type -> type.getQualityValue() > 0)
+                .findFirst()
+                .map(MediaType::removeQualityValue)
+                .orElse(producible.get(0));
+    }
+}
@@ -1,8 +1,15 @@
 package com.nadeemr.ebanking.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.dto.TransactionBatchRequestDto;
+import com.nadeemr.ebanking.api.dto.TransactionBatchResponseDto;
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
 import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
 import com.nadeemr.ebanking.domain.service.TransactionService;
+import com.nadeemr.ebanking.domain.service.TransactionVersionService;
+import com.nadeemr.ebanking.infrastructure.cache.ResponseBytesCache;
+import com.nadeemr.ebanking.infrastructure.messaging.TransactionFeed;
+import com.nadeemr.ebanking.infrastructure.timing.ServerTiming;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,20 +18,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for transaction operations
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/transactions")
 @Validated
 @Tag(name = "Transactions", description = "Transaction management APIs")
@@ -33,10 +53,26 @@ public class TransactionController {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
     
+    // In the order of the message converters, see BinaryFormatConfig
+    private static final List<MediaType> PAGE_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+    
     private final TransactionService transactionService;
+    private final TransactionVersionService transactionVersionService;
+    private final TransactionFeed transactionFeed;
+    private final ResponseBytesCache responseBytesCache;
+    private final ObjectMapper objectMapper;
     
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionVersionService transactionVersionService,
+                                 TransactionFeed transactionFeed,
+                                 ResponseBytesCache responseBytesCache,
+                                 ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.transactionVersionService = transactionVersionService;
+        this.transactionFeed = transactionFeed;
+        this.responseBytesCache = responseBytesCache;
+        this.objectMapper = objectMapper;
     }
     
     @GetMapping
@@ -51,6 +87,10 @@ public class TransactionController {
             content = @Content(mediaType = "application/json", 
                              schema = @Schema(implementation = TransactionPageDto.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Transactions unchanged since the ETag sent in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "400", 
             description = "Invalid request parameters",
@@ -89,7 +129,16 @@ public class TransactionController {
             @Parameter(description = "Filter by account IBAN (optional)")
             @RequestParam(value = "accountIban", required = false)
             @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{4}[0-9]{7}([A-Z0-9]?){0,16}$", message = "Invalid IBAN format")
-            String accountIban) {
+            String accountIban,
+            
+            @Parameter(description = "Comma separated sparse fieldset (optional), e.g. id,amount,valueDate or summary; "
+                    + "stages whose fields are not requested are skipped", example = "id,amount,valueDate")
+            @RequestParam(value = "fields", required = false)
+            @Pattern(regexp = "^[A-Za-z.,\\s]*$", message = "Fields must be a comma separated list of field names")
+            String fields,
+            
+            WebRequest webRequest,
+            HttpServletResponse response) throws IOException {
         
         // Get authenticated customer ID from JWT token
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -101,14 +150,39 @@ public class TransactionController {
         // Create search criteria
         TransactionSearchDto searchCriteria = new TransactionSearchDto(yearMonth, page, size, baseCurrency);
         searchCriteria.setAccountIban(accountIban);
+        searchCriteria.setFields(fields);
+        
+        // Answer polling clients from the month version alone when nothing has changed; the version
+        // read here also keys the query, so it isn't read twice. Each rendering has its own tag
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        long monthVersion = transactionVersionService.currentVersion(customerId, YearMonth.parse(yearMonth));
+        Optional<String> eTag = transactionVersionService.getETag(customerId, searchCriteria, monthVersion,
+                ResponseMediaTypes.negotiate(accept, PAGE_MEDIA_TYPES).toString());
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            logger.debug("Transactions for customer {} in month {} not modified", customerId, yearMonth);
+            return null;
+        }
+        
+        // Write hot JSON pages straight from their serialized bytes
+        if (eTag.isPresent() && negotiatesJson(accept)) {
+            writeSerialized(customerId, searchCriteria, monthVersion, eTag.get(), response);
+            return null;
+        }
         
         // Get transactions
-        TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria);
+        TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria, monthVersion);
         
         logger.info("Retrieved {} transactions for customer {} in month {}", 
-                   result.getTransactions().size(), customerId, yearMonth);
+                   countOf(result), customerId, yearMonth);
         
-        return ResponseEntity.ok(result);
+        if (eTag.isEmpty()) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag.get())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(result);
     }
     
     @PostMapping("/search")
@@ -148,8 +222,139 @@ public class TransactionController {
         TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria);
         
         logger.info("Found {} transactions for customer {} with search criteria", 
-                   result.getTransactions().size(), customerId);
+                   countOf(result), customerId);
         
         return ResponseEntity.ok(result);
     }
+    
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Run several transaction queries in one request",
+        description = "Answers up to 20 queries concurrently; identical queries, exchange rates and month scans are shared"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved transactions for every query",
+            content = @Content(mediaType = "application/json", 
+                             schema = @Schema(implementation = TransactionBatchResponseDto.class))
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Invalid query in the batch",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401", 
+            description = "Unauthorized - Invalid or missing JWT token",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "503", 
+            description = "Query capacity exhausted, retry later",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<TransactionBatchResponseDto> batchTransactions(
+            @Parameter(description = "Queries to run", required = true)
+            @Valid @RequestBody TransactionBatchRequestDto batchRequest) {
+        
+        // Get authenticated customer ID from JWT token
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String customerId = authentication.getName();
+        
+        logger.info("Running {} batched queries for customer {}", batchRequest.getQueries().size(), customerId);
+        
+        List<TransactionPageDto> results = transactionService.getTransactions(customerId, batchRequest.getQueries());
+        
+        logger.info("Answered {} batched queries for customer {}", results.size(), customerId);
+        
+        return ResponseEntity.ok(new TransactionBatchResponseDto(results));
+    }
+    
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Live feed of the authenticated customer's transaction changes",
+        description = "Server-Sent Events stream with a 'transaction' event per created, updated or deleted transaction. "
+                + "Reconnect with Last-Event-ID to receive the events missed meanwhile; a 'resync' event means "
+                + "they are no longer available and the pages should be reloaded"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Event stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+        ),
+        @ApiResponse(
+            responseCode = "401", 
+            description = "Unauthorized - Invalid or missing JWT token",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "503", 
+            description = "No capacity for another stream on this instance, retry later",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public SseEmitter streamTransactions(
+            @Parameter(description = "Id of the last event received before reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false)
+            String lastEventId) {
+        
+        // Get authenticated customer ID from JWT token
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String customerId = authentication.getName();
+        
+        logger.info("Opening transaction feed for customer {}", customerId);
+        
+        return transactionFeed.subscribe(customerId, lastEventId);
+    }
+    
+    /**
+     * Serve the JSON page from the response cache, serializing and caching it on a miss.
+     * Bypasses the message converters, so it's only used when they would pick JSON as well.
+     */
+    private void writeSerialized(String customerId, TransactionSearchDto searchCriteria, long monthVersion,
+                                 String eTag, HttpServletResponse response) throws IOException {
+        Optional<ResponseBytesCache.CachedResponse> cached =
+                responseBytesCache.get(customerId, eTag, MediaType.APPLICATION_JSON_VALUE);
+        ResponseBytesCache.CachedResponse serialized;
+        if (cached.isPresent()) {
+            serialized = cached.get();
+            ServerTiming.current().ifPresent(timing -> timing.serialized(0, true));
+            logger.info("Served cached transactions for customer {} in month {}", customerId, searchCriteria.getYearMonth());
+        } else {
+            TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria, monthVersion);
+            logger.info("Retrieved {} transactions for customer {} in month {}",
+                       countOf(result), customerId, searchCriteria.getYearMonth());
+            long start = System.nanoTime();
+            byte[] body = objectMapper.writeValueAsBytes(result);
+            ServerTiming.current().ifPresent(timing -> timing.serialized(System.nanoTime() - start, false));
+            serialized = new ResponseBytesCache.CachedResponse(body, eTag, MediaType.APPLICATION_JSON_VALUE);
+            responseBytesCache.put(customerId, YearMonth.parse(searchCriteria.getYearMonth()), serialized);
+        }
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(HttpHeaders.ETAG, serialized.eTag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setContentType(serialized.contentType());
+        response.setContentLength(serialized.body().length);
+        response.getOutputStream().write(serialized.body());
+    }
+    
+    /**
+     * Whether content negotiation would answer in JSON: nothing but JSON or wildcards accepted
+     */
+    private static boolean negotiatesJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        return accepted.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON))
+                && accepted.stream().allMatch(type -> type.isWildcardSubtype() || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(type));
+    }
+    
+    private static int countOf(TransactionPageDto result) {
+        return result.getTransactions() != null ? result.getTransactions().size() : 0;
+    }
 }
@@ -0,0 +1,66 @@
+package com.nadeemr.ebanking.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves the unselected properties out of a page answering a sparse fieldset. Whether a page is
+ * sparse is looked up on the enclosing {@link TransactionPageDto} while writing, so pages with
+ * and without a fieldset can share one response, as in a batch. Pages without a fieldset keep
+ * the full contract, null values included.
+ */
+public class SparseFieldsetModule extends SimpleModule {
+
+    private static final Set<Class<?>> PAGE_TYPES =
+            Set.of(TransactionPageDto.class, TransactionPageDto.PageInfo.class, TransactionDto.class);
+
+    public SparseFieldsetModule() {
+        super("SparseFieldsetModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                if (!PAGE_TYPES.contains(beanDesc.getBeanClass())) {
+                    return beanProperties;
+                }
+                return beanProperties.stream()
+                        .map(SparsePropertyWriter::new)
+                        .collect(Collectors.toList());
+            }
+        });
+    }
+
+    private static final class SparsePropertyWriter extends BeanPropertyWriter {
+
+        SparsePropertyWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (get(bean) == null && inSparsePage(gen.getOutputContext())) {
+                return;
+            }
+            super.serializeAsField(bean, gen, prov);
+        }
+
+        private static boolean inSparsePage(JsonStreamContext context) {
+            for (JsonStreamContext current = context; current != null; current = current.getParent()) {
+                if (current.getCurrentValue() instanceof TransactionPageDto page) {
+                    return page.isSparse();
+                }
+            }
+            return false;
+        }
+    }
+}
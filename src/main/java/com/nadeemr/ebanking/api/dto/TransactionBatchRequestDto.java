@@ -0,0 +1,53 @@
+package com.nadeemr.ebanking.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.Objects;
+
+@Schema(description = "Several transaction queries answered in one request")
+public class TransactionBatchRequestDto {
+    
+    @Schema(description = "Queries to run, answered in the same order", required = true)
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 20, message = "A batch cannot contain more than 20 queries")
+    private List<@Valid TransactionSearchDto> queries;
+    
+    public TransactionBatchRequestDto() {}
+    
+    public TransactionBatchRequestDto(List<TransactionSearchDto> queries) {
+        this.queries = queries;
+    }
+    
+    // Getters and Setters
+    public List<TransactionSearchDto> getQueries() {
+        return queries;
+    }
+    
+    public void setQueries(List<TransactionSearchDto> queries) {
+        this.queries = queries;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionBatchRequestDto that = (TransactionBatchRequestDto) o;
+        return Objects.equals(queries, that.queries);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(queries);
+    }
+    
+    @Override
+    public String toString() {
+        return "TransactionBatchRequestDto{" +
+                "queries=" + queries +
+                '}';
+    }
+}
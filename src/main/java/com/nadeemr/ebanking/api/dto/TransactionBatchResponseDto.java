@@ -0,0 +1,48 @@
+package com.nadeemr.ebanking.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Objects;
+
+@Schema(description = "Results of a query batch")
+public class TransactionBatchResponseDto {
+    
+    @Schema(description = "One result per query, in request order")
+    private List<TransactionPageDto> results;
+    
+    public TransactionBatchResponseDto() {}
+    
+    public TransactionBatchResponseDto(List<TransactionPageDto> results) {
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public List<TransactionPageDto> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<TransactionPageDto> results) {
+        this.results = results;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionBatchResponseDto that = (TransactionBatchResponseDto) o;
+        return Objects.equals(results, that.results);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(results);
+    }
+    
+    @Override
+    public String toString() {
+        return "TransactionBatchResponseDto{" +
+                "results=" + results +
+                '}';
+    }
+}
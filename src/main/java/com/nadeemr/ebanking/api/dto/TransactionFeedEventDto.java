@@ -0,0 +1,89 @@
+package com.nadeemr.ebanking.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Objects;
+
+@Schema(description = "Change to one of the customer's transactions, pushed on the live feed")
+public class TransactionFeedEventDto {
+    
+    @Schema(description = "Kind of change", example = "CREATE", allowableValues = {"CREATE", "UPDATE", "DELETE"})
+    private String eventType;
+    
+    @Schema(description = "Changed transaction", example = "89d3o179-abcd-465b-o9ee-e2d5f6ofEld46")
+    private String transactionId;
+    
+    @Schema(description = "Account IBAN of the transaction", example = "GB82WEST12345698765432")
+    private String accountIban;
+    
+    @Schema(description = "Month whose transaction pages changed, in YYYY-MM format", example = "2023-10")
+    private String yearMonth;
+    
+    public TransactionFeedEventDto() {}
+    
+    public TransactionFeedEventDto(String eventType, String transactionId, String accountIban, String yearMonth) {
+        this.eventType = eventType;
+        this.transactionId = transactionId;
+        this.accountIban = accountIban;
+        this.yearMonth = yearMonth;
+    }
+    
+    // Getters and Setters
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public String getAccountIban() {
+        return accountIban;
+    }
+    
+    public void setAccountIban(String accountIban) {
+        this.accountIban = accountIban;
+    }
+    
+    public String getYearMonth() {
+        return yearMonth;
+    }
+    
+    public void setYearMonth(String yearMonth) {
+        this.yearMonth = yearMonth;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionFeedEventDto that = (TransactionFeedEventDto) o;
+        return Objects.equals(eventType, that.eventType) &&
+                Objects.equals(transactionId, that.transactionId) &&
+                Objects.equals(accountIban, that.accountIban) &&
+                Objects.equals(yearMonth, that.yearMonth);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventType, transactionId, accountIban, yearMonth);
+    }
+    
+    @Override
+    public String toString() {
+        return "TransactionFeedEventDto{" +
+                "eventType='" + eventType + '\'' +
+                ", transactionId='" + transactionId + '\'' +
+                ", accountIban='" + accountIban + '\'' +
+                ", yearMonth='" + yearMonth + '\'' +
+                '}';
+    }
+}
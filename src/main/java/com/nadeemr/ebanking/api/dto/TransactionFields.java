@@ -0,0 +1,187 @@
+package com.nadeemr.ebanking.api.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested through the {@code fields} parameter, e.g. {@code id,amount,valueDate}
+ * or {@code summary}. Entries are either a transaction field, a whole section
+ * ({@code transactions}, {@code pageInfo}, {@code summary}) or a single page info field
+ * such as {@code pageInfo.totalElements}. No selection means the full response.
+ * Page number, size and first/last flags are always part of a selected page info;
+ * the totals only when selected, since they cost a count query.
+ */
+public final class TransactionFields {
+
+    public enum TransactionField {
+        ID("id"),
+        AMOUNT("amount"),
+        CURRENCY("currency"),
+        ACCOUNT_IBAN("accountIban"),
+        VALUE_DATE("valueDate"),
+        DESCRIPTION("description"),
+        CONVERTED_AMOUNT("convertedAmount"),
+        BASE_CURRENCY("baseCurrency");
+
+        private final String name;
+
+        TransactionField(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public enum PageInfoField {
+        PAGE("page"),
+        SIZE("size"),
+        TOTAL_ELEMENTS("totalElements"),
+        TOTAL_PAGES("totalPages"),
+        FIRST("first"),
+        LAST("last");
+
+        private final String name;
+
+        PageInfoField(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static final TransactionFields ALL = new TransactionFields(
+            EnumSet.allOf(TransactionField.class), EnumSet.allOf(PageInfoField.class), true);
+
+    private final Set<TransactionField> transactionFields;
+    private final Set<PageInfoField> pageInfoFields;
+    private final boolean summary;
+
+    private TransactionFields(Set<TransactionField> transactionFields, Set<PageInfoField> pageInfoFields,
+                              boolean summary) {
+        this.transactionFields = Collections.unmodifiableSet(transactionFields);
+        this.pageInfoFields = Collections.unmodifiableSet(pageInfoFields);
+        this.summary = summary;
+    }
+
+    /**
+     * Parse a comma separated field list
+     *
+     * @throws IllegalArgumentException if an entry names an unknown field
+     */
+    public static TransactionFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<TransactionField> transactionFields = EnumSet.noneOf(TransactionField.class);
+        Set<PageInfoField> pageInfoFields = EnumSet.noneOf(PageInfoField.class);
+        boolean summary = false;
+
+        for (String entry : fields.split(",")) {
+            String field = entry.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            switch (field) {
+                case "transactions" -> transactionFields.addAll(EnumSet.allOf(TransactionField.class));
+                case "pageInfo" -> pageInfoFields.addAll(EnumSet.allOf(PageInfoField.class));
+                case "summary" -> summary = true;
+                default -> {
+                    if (field.startsWith("pageInfo.")) {
+                        pageInfoFields.add(pageInfoField(field.substring("pageInfo.".length())));
+                    } else {
+                        transactionFields.add(transactionField(field.startsWith("transactions.")
+                                ? field.substring("transactions.".length())
+                                : field));
+                    }
+                }
+            }
+        }
+
+        return new TransactionFields(transactionFields, pageInfoFields, summary);
+    }
+
+    private static TransactionField transactionField(String name) {
+        for (TransactionField field : TransactionField.values()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+
+    private static PageInfoField pageInfoField(String name) {
+        for (PageInfoField field : PageInfoField.values()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: pageInfo." + name);
+    }
+
+    /**
+     * Whether a selection was made, rather than the full response
+     */
+    public boolean isSparse() {
+        return this != ALL;
+    }
+
+    public boolean includesTransactions() {
+        return !transactionFields.isEmpty();
+    }
+
+    public boolean includes(TransactionField field) {
+        return transactionFields.contains(field);
+    }
+
+    public boolean includesPageInfo() {
+        return !pageInfoFields.isEmpty();
+    }
+
+    public boolean includes(PageInfoField field) {
+        return pageInfoFields.contains(field);
+    }
+
+    /**
+     * Whether the page totals are requested, which costs a count query over the month
+     */
+    public boolean includesTotals() {
+        return includes(PageInfoField.TOTAL_ELEMENTS) || includes(PageInfoField.TOTAL_PAGES);
+    }
+
+    public boolean includesSummary() {
+        return summary;
+    }
+
+    /**
+     * Clear the fields that were not requested
+     */
+    public TransactionDto trim(TransactionDto dto) {
+        if (transactionFields.size() == TransactionField.values().length) {
+            return dto;
+        }
+        if (!includes(TransactionField.ID)) dto.setId(null);
+        if (!includes(TransactionField.AMOUNT)) dto.setAmount(null);
+        if (!includes(TransactionField.CURRENCY)) dto.setCurrency(null);
+        if (!includes(TransactionField.ACCOUNT_IBAN)) dto.setAccountIban(null);
+        if (!includes(TransactionField.VALUE_DATE)) dto.setValueDate(null);
+        if (!includes(TransactionField.DESCRIPTION)) dto.setDescription(null);
+        if (!includes(TransactionField.CONVERTED_AMOUNT)) dto.setConvertedAmount(null);
+        if (!includes(TransactionField.BASE_CURRENCY)) dto.setBaseCurrency(null);
+        return dto;
+    }
+
+    /**
+     * Clear the page info fields that were not requested
+     */
+    public TransactionPageDto.PageInfo trim(TransactionPageDto.PageInfo pageInfo) {
+        if (!includes(PageInfoField.TOTAL_ELEMENTS)) pageInfo.setTotalElements(null);
+        if (!includes(PageInfoField.TOTAL_PAGES)) pageInfo.setTotalPages(null);
+        return pageInfo;
+    }
+}
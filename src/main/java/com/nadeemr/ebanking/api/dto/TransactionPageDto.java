@@ -1,5 +1,6 @@
 package com.nadeemr.ebanking.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -18,6 +19,12 @@ public class TransactionPageDto {
     @Schema(description = "Summary information for the page")
     private TransactionSummary summary;
     
+    /**
+     * Answers a sparse fieldset, so its unselected (null) properties are left out when written
+     */
+    @JsonIgnore
+    private boolean sparse;
+    
     public TransactionPageDto() {}
     
     public TransactionPageDto(List<TransactionDto> transactions, PageInfo pageInfo, TransactionSummary summary) {
@@ -51,6 +58,14 @@ public class TransactionPageDto {
         this.summary = summary;
     }
     
+    public boolean isSparse() {
+        return sparse;
+    }
+    
+    public void setSparse(boolean sparse) {
+        this.sparse = sparse;
+    }
+    
     @Schema(description = "Page information")
     public static class PageInfo {
         @Schema(description = "Current page number (0-based)", example = "0")
@@ -59,11 +74,11 @@ public class TransactionPageDto {
         @Schema(description = "Page size", example = "20")
         private int size;
         
-        @Schema(description = "Total number of elements", example = "150")
-        private long totalElements;
+        @Schema(description = "Total number of elements, omitted when a sparse fieldset doesn't select it", example = "150")
+        private Long totalElements;
         
-        @Schema(description = "Total number of pages", example = "8")
-        private int totalPages;
+        @Schema(description = "Total number of pages, omitted when a sparse fieldset doesn't select it", example = "8")
+        private Integer totalPages;
         
         @Schema(description = "Whether this is the first page", example = "true")
         private boolean first;
@@ -74,6 +89,13 @@ public class TransactionPageDto {
         public PageInfo() {}
         
         public PageInfo(int page, int size, long totalElements, int totalPages, boolean first, boolean last) {
+            this(page, size, Long.valueOf(totalElements), Integer.valueOf(totalPages), first, last);
+        }
+        
+        /**
+         * Page info whose totals may be left out when the month was not counted
+         */
+        public PageInfo(int page, int size, Long totalElements, Integer totalPages, boolean first, boolean last) {
             this.page = page;
             this.size = size;
             this.totalElements = totalElements;
@@ -99,19 +121,19 @@ public class TransactionPageDto {
             this.size = size;
         }
         
-        public long getTotalElements() {
+        public Long getTotalElements() {
             return totalElements;
         }
         
-        public void setTotalElements(long totalElements) {
+        public void setTotalElements(Long totalElements) {
             this.totalElements = totalElements;
         }
         
-        public int getTotalPages() {
+        public Integer getTotalPages() {
             return totalPages;
         }
         
-        public void setTotalPages(int totalPages) {
+        public void setTotalPages(Integer totalPages) {
             this.totalPages = totalPages;
         }
         
@@ -31,6 +31,11 @@ public class TransactionSearchDto {
     @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{4}[0-9]{7}([A-Z0-9]?){0,16}$")
     private String accountIban;
     
+    @Schema(description = "Comma separated sparse fieldset (optional), e.g. id,amount,valueDate or summary",
+            example = "id,amount,valueDate")
+    @Pattern(regexp = "^[A-Za-z.,\\s]*$", message = "Fields must be a comma separated list of field names")
+    private String fields;
+    
     public TransactionSearchDto() {}
     
     public TransactionSearchDto(String yearMonth, int page, int size, String baseCurrency) {
@@ -81,6 +86,14 @@ public class TransactionSearchDto {
         this.accountIban = accountIban;
     }
     
+    public String getFields() {
+        return fields;
+    }
+    
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -90,12 +103,13 @@ public class TransactionSearchDto {
                 size == that.size &&
                 Objects.equals(yearMonth, that.yearMonth) &&
                 Objects.equals(baseCurrency, that.baseCurrency) &&
-                Objects.equals(accountIban, that.accountIban);
+                Objects.equals(accountIban, that.accountIban) &&
+                Objects.equals(fields, that.fields);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(yearMonth, page, size, baseCurrency, accountIban);
+        return Objects.hash(yearMonth, page, size, baseCurrency, accountIban, fields);
     }
     
     @Override
@@ -106,6 +120,7 @@ public class TransactionSearchDto {
                 ", size=" + size +
                 ", baseCurrency='" + baseCurrency + '\'' +
                 ", accountIban='" + accountIban + '\'' +
+                ", fields='" + fields + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,67 @@
+package com.nadeemr.ebanking.domain.model;
+
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the canonical {@link CurrencyUnit} instances for every ISO-4217 currency known to the JVM.
+ * Codes are resolved once at the API and ingest boundaries; past that point currencies are
+ * compared by reference and indexed by ordinal.
+ */
+public final class CurrencyRegistry {
+
+    private static final CurrencyUnit[] BY_ORDINAL;
+    private static final Map<String, CurrencyUnit> BY_CODE;
+
+    static {
+        List<Currency> currencies = Currency.getAvailableCurrencies().stream()
+                .sorted(Comparator.comparing(Currency::getCurrencyCode))
+                .collect(Collectors.toList());
+
+        BY_ORDINAL = new CurrencyUnit[currencies.size()];
+        BY_CODE = new HashMap<>(currencies.size() * 2);
+        for (int ordinal = 0; ordinal < currencies.size(); ordinal++) {
+            Currency currency = currencies.get(ordinal);
+            // Funds and precious metals report -1 fraction digits; treat them as whole units
+            CurrencyUnit unit = new CurrencyUnit(currency.getCurrencyCode(),
+                    Math.max(currency.getDefaultFractionDigits(), 0), ordinal);
+            BY_ORDINAL[ordinal] = unit;
+            BY_CODE.put(unit.getCode(), unit);
+        }
+    }
+
+    private CurrencyRegistry() {}
+
+    /**
+     * Resolve a currency code to its canonical instance
+     *
+     * @throws IllegalArgumentException if the code is not an ISO-4217 currency
+     */
+    public static CurrencyUnit resolve(String code) {
+        CurrencyUnit unit = code != null ? BY_CODE.get(code) : null;
+        if (unit == null) {
+            throw new IllegalArgumentException("Unknown currency code: " + code);
+        }
+        return unit;
+    }
+
+    public static Optional<CurrencyUnit> find(String code) {
+        return Optional.ofNullable(code != null ? BY_CODE.get(code) : null);
+    }
+
+    public static CurrencyUnit byOrdinal(int ordinal) {
+        return BY_ORDINAL[ordinal];
+    }
+
+    /**
+     * Number of registered currencies; every ordinal is below this value
+     */
+    public static int size() {
+        return BY_ORDINAL.length;
+    }
+}
@@ -0,0 +1,127 @@
+package com.nadeemr.ebanking.domain.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Credit and debit totals of a set of transactions, bucketed by currency and sign in fixed-point units.
+ * Large inputs are summed in parallel on the common fork/join pool; small ones sequentially.
+ * Both paths produce identical totals, and both fail with {@link ArithmeticException} when a total
+ * does not fit in a long: credits and debit magnitudes only grow, so every partial sum is bounded
+ * by its final total regardless of the order buckets are combined in.
+ */
+public final class CurrencyTotals {
+
+    /**
+     * Row count from which the parallel path is used
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    private static final int LEAF_SIZE = 1 << 12;
+
+    private final long[] creditUnits;
+    private final long[] debitUnits;
+    private final boolean[] present;
+
+    private CurrencyTotals() {
+        this.creditUnits = new long[CurrencyRegistry.size()];
+        this.debitUnits = new long[CurrencyRegistry.size()];
+        this.present = new boolean[CurrencyRegistry.size()];
+    }
+
+    public static CurrencyTotals of(List<Transaction> transactions) {
+        return transactions.size() >= PARALLEL_THRESHOLD ? parallel(transactions) : sequential(transactions);
+    }
+
+    static CurrencyTotals sequential(List<Transaction> transactions) {
+        CurrencyTotals totals = new CurrencyTotals();
+        for (Transaction transaction : transactions) {
+            totals.add(transaction);
+        }
+        return totals;
+    }
+
+    static CurrencyTotals parallel(List<Transaction> transactions) {
+        Transaction[] rows = transactions.toArray(new Transaction[0]);
+        return new AggregationTask(rows, 0, rows.length).invoke();
+    }
+
+    /**
+     * Currencies with at least one transaction, in registry order
+     */
+    public List<CurrencyUnit> getCurrencies() {
+        List<CurrencyUnit> currencies = new ArrayList<>();
+        for (int ordinal = 0; ordinal < present.length; ordinal++) {
+            if (present[ordinal]) {
+                currencies.add(CurrencyRegistry.byOrdinal(ordinal));
+            }
+        }
+        return Collections.unmodifiableList(currencies);
+    }
+
+    public FixedPointMoney getCredit(CurrencyUnit currency) {
+        return FixedPointMoney.ofUnits(creditUnits[currency.getOrdinal()], currency);
+    }
+
+    /**
+     * Sum of the debit magnitudes, as a non-negative amount
+     */
+    public FixedPointMoney getDebit(CurrencyUnit currency) {
+        return FixedPointMoney.ofUnits(debitUnits[currency.getOrdinal()], currency);
+    }
+
+    private void add(Transaction transaction) {
+        long units = FixedPointMoney.toUnits(transaction.getAmount());
+        int ordinal = transaction.getCurrency().getOrdinal();
+        present[ordinal] = true;
+
+        if (units >= 0) {
+            creditUnits[ordinal] = Math.addExact(creditUnits[ordinal], units);
+        } else {
+            debitUnits[ordinal] = Math.addExact(debitUnits[ordinal], Math.negateExact(units));
+        }
+    }
+
+    private void merge(CurrencyTotals other) {
+        for (int ordinal = 0; ordinal < present.length; ordinal++) {
+            if (other.present[ordinal]) {
+                present[ordinal] = true;
+                creditUnits[ordinal] = Math.addExact(creditUnits[ordinal], other.creditUnits[ordinal]);
+                debitUnits[ordinal] = Math.addExact(debitUnits[ordinal], other.debitUnits[ordinal]);
+            }
+        }
+    }
+
+    private static final class AggregationTask extends RecursiveTask<CurrencyTotals> {
+
+        private final Transaction[] rows;
+        private final int from;
+        private final int to;
+
+        AggregationTask(Transaction[] rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CurrencyTotals compute() {
+            if (to - from <= LEAF_SIZE) {
+                CurrencyTotals totals = new CurrencyTotals();
+                for (int i = from; i < to; i++) {
+                    totals.add(rows[i]);
+                }
+                return totals;
+            }
+
+            int middle = (from + to) >>> 1;
+            AggregationTask left = new AggregationTask(rows, from, middle);
+            left.fork();
+            CurrencyTotals totals = new AggregationTask(rows, middle, to).compute();
+            totals.merge(left.join());
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.nadeemr.ebanking.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Canonical ISO-4217 currency. Instances are interned by {@link CurrencyRegistry},
+ * so currencies can be compared by reference and their ordinal used as an array index.
+ */
+public final class CurrencyUnit {
+
+    private final String code;
+    private final int minorUnitDigits;
+    private final int ordinal;
+
+    CurrencyUnit(String code, int minorUnitDigits, int ordinal) {
+        this.code = code;
+        this.minorUnitDigits = minorUnitDigits;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Resolve a currency code to its canonical instance
+     *
+     * @throws IllegalArgumentException if the code is not an ISO-4217 currency
+     */
+    @JsonCreator
+    public static CurrencyUnit of(String code) {
+        return CurrencyRegistry.resolve(code);
+    }
+
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Number of minor unit digits, e.g. 2 for EUR and 0 for JPY
+     */
+    public int getMinorUnitDigits() {
+        return minorUnitDigits;
+    }
+
+    /**
+     * Dense index of this currency within {@link CurrencyRegistry}
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
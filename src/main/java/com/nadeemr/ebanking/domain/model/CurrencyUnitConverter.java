@@ -0,0 +1,21 @@
+package com.nadeemr.ebanking.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link CurrencyUnit} as its ISO-4217 code and resolves it back to the canonical instance
+ */
+@Converter(autoApply = true)
+public class CurrencyUnitConverter implements AttributeConverter<CurrencyUnit, String> {
+
+    @Override
+    public String convertToDatabaseColumn(CurrencyUnit currency) {
+        return currency != null ? currency.getCode() : null;
+    }
+
+    @Override
+    public CurrencyUnit convertToEntityAttribute(String code) {
+        return code != null ? CurrencyRegistry.resolve(code) : null;
+    }
+}
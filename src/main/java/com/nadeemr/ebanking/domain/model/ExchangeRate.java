@@ -1,6 +1,7 @@
 package com.nadeemr.ebanking.domain.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Objects;
 
@@ -9,12 +10,12 @@ import java.util.Objects;
  */
 public class ExchangeRate {
     
-    private final String fromCurrency;
-    private final String toCurrency;
+    private final CurrencyUnit fromCurrency;
+    private final CurrencyUnit toCurrency;
     private final BigDecimal rate;
     private final LocalDate date;
     
-    public ExchangeRate(String fromCurrency, String toCurrency, BigDecimal rate, LocalDate date) {
+    public ExchangeRate(CurrencyUnit fromCurrency, CurrencyUnit toCurrency, BigDecimal rate, LocalDate date) {
         this.fromCurrency = Objects.requireNonNull(fromCurrency, "From currency cannot be null");
         this.toCurrency = Objects.requireNonNull(toCurrency, "To currency cannot be null");
         this.rate = Objects.requireNonNull(rate, "Rate cannot be null");
@@ -25,11 +26,11 @@ public class ExchangeRate {
         }
     }
     
-    public String getFromCurrency() {
+    public CurrencyUnit getFromCurrency() {
         return fromCurrency;
     }
     
-    public String getToCurrency() {
+    public CurrencyUnit getToCurrency() {
         return toCurrency;
     }
     
@@ -48,13 +49,20 @@ public class ExchangeRate {
         return amount.multiply(rate);
     }
     
+    /**
+     * Convert amount using this exchange rate, rounding the result to the given scale
+     */
+    public BigDecimal convert(BigDecimal amount, int scale, RoundingMode roundingMode) {
+        return amount.multiply(rate).setScale(scale, roundingMode);
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ExchangeRate that = (ExchangeRate) o;
-        return Objects.equals(fromCurrency, that.fromCurrency) &&
-                Objects.equals(toCurrency, that.toCurrency) &&
+        return fromCurrency == that.fromCurrency &&
+                toCurrency == that.toCurrency &&
                 Objects.equals(rate, that.rate) &&
                 Objects.equals(date, that.date);
     }
@@ -67,8 +75,8 @@ public class ExchangeRate {
     @Override
     public String toString() {
         return "ExchangeRate{" +
-                "fromCurrency='" + fromCurrency + '\'' +
-                ", toCurrency='" + toCurrency + '\'' +
+                "fromCurrency=" + fromCurrency +
+                ", toCurrency=" + toCurrency +
                 ", rate=" + rate +
                 ", date=" + date +
                 '}';
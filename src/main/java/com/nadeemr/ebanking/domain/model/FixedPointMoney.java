@@ -0,0 +1,132 @@
+package com.nadeemr.ebanking.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Value object representing a monetary amount as a scaled long of 10^-4 units,
+ * the precision transaction amounts are stored with. Additions are exact and
+ * fail with {@link ArithmeticException} instead of overflowing.
+ */
+public final class FixedPointMoney {
+
+    /**
+     * Number of decimal places held by one unit, matching the transaction amount column scale
+     */
+    public static final int SCALE = 4;
+
+    private final long units;
+    private final CurrencyUnit currency;
+
+    private FixedPointMoney(long units, CurrencyUnit currency) {
+        this.units = units;
+        this.currency = Objects.requireNonNull(currency, "Currency cannot be null");
+    }
+
+    public static FixedPointMoney of(BigDecimal amount, CurrencyUnit currency) {
+        return new FixedPointMoney(toUnits(amount), currency);
+    }
+
+    public static FixedPointMoney ofUnits(long units, CurrencyUnit currency) {
+        return new FixedPointMoney(units, currency);
+    }
+
+    public static FixedPointMoney zero(CurrencyUnit currency) {
+        return new FixedPointMoney(0L, currency);
+    }
+
+    /**
+     * Convert an amount to fixed-point units without rounding
+     *
+     * @throws ArithmeticException if the amount has more than {@link #SCALE} decimals or does not fit in a long
+     */
+    public static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE).unscaledValue().longValueExact();
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public CurrencyUnit getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Add another amount (must be same currency)
+     */
+    public FixedPointMoney add(FixedPointMoney other) {
+        if (this.currency != other.currency) {
+            throw new IllegalArgumentException("Cannot add money with different currencies");
+        }
+        return new FixedPointMoney(Math.addExact(this.units, other.units), currency);
+    }
+
+    /**
+     * Subtract another amount (must be same currency)
+     */
+    public FixedPointMoney subtract(FixedPointMoney other) {
+        if (this.currency != other.currency) {
+            throw new IllegalArgumentException("Cannot subtract money with different currencies");
+        }
+        return new FixedPointMoney(Math.subtractExact(this.units, other.units), currency);
+    }
+
+    /**
+     * Exact amount at {@link #SCALE} decimals
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Amount rounded to the minor units of its currency
+     */
+    public BigDecimal toBigDecimal(RoundingMode roundingMode) {
+        return toBigDecimal().setScale(currency.getMinorUnitDigits(), roundingMode);
+    }
+
+    /**
+     * Convert to the target currency of the exchange rate without intermediate rounding
+     */
+    public BigDecimal convert(ExchangeRate exchangeRate) {
+        if (this.currency != exchangeRate.getFromCurrency()) {
+            throw new IllegalArgumentException("Exchange rate does not match currencies");
+        }
+        return exchangeRate.convert(toBigDecimal());
+    }
+
+    /**
+     * Convert to the target currency of the exchange rate, rounded to the target currency's minor units
+     */
+    public BigDecimal convert(ExchangeRate exchangeRate, RoundingMode roundingMode) {
+        if (this.currency != exchangeRate.getFromCurrency()) {
+            throw new IllegalArgumentException("Exchange rate does not match currencies");
+        }
+        return exchangeRate.convert(toBigDecimal(), exchangeRate.getToCurrency().getMinorUnitDigits(), roundingMode);
+    }
+
+    public Money toMoney() {
+        return new Money(toBigDecimal(), currency);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FixedPointMoney that = (FixedPointMoney) o;
+        return units == that.units &&
+                currency == that.currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(units, currency);
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + toBigDecimal().toPlainString();
+    }
+}
@@ -9,31 +9,27 @@ import java.util.Objects;
 public class Money {
     
     private final BigDecimal amount;
-    private final String currency;
+    private final CurrencyUnit currency;
     
-    public Money(BigDecimal amount, String currency) {
+    public Money(BigDecimal amount, CurrencyUnit currency) {
         this.amount = Objects.requireNonNull(amount, "Amount cannot be null");
         this.currency = Objects.requireNonNull(currency, "Currency cannot be null");
-        
-        if (currency.length() != 3) {
-            throw new IllegalArgumentException("Currency must be a 3-letter code");
-        }
     }
     
     public BigDecimal getAmount() {
         return amount;
     }
     
-    public String getCurrency() {
+    public CurrencyUnit getCurrency() {
         return currency;
     }
     
     /**
      * Convert this money to another currency using the provided exchange rate
      */
-    public Money convertTo(String targetCurrency, ExchangeRate exchangeRate) {
-        if (!this.currency.equals(exchangeRate.getFromCurrency()) || 
-            !targetCurrency.equals(exchangeRate.getToCurrency())) {
+    public Money convertTo(CurrencyUnit targetCurrency, ExchangeRate exchangeRate) {
+        if (this.currency != exchangeRate.getFromCurrency() || 
+            targetCurrency != exchangeRate.getToCurrency()) {
             throw new IllegalArgumentException("Exchange rate does not match currencies");
         }
         
@@ -45,7 +41,7 @@ public class Money {
      * Add another money amount (must be same currency)
      */
     public Money add(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currency != other.currency) {
             throw new IllegalArgumentException("Cannot add money with different currencies");
         }
         return new Money(this.amount.add(other.amount), this.currency);
@@ -55,7 +51,7 @@ public class Money {
      * Subtract another money amount (must be same currency)
      */
     public Money subtract(Money other) {
-        if (!this.currency.equals(other.currency)) {
+        if (this.currency != other.currency) {
             throw new IllegalArgumentException("Cannot subtract money with different currencies");
         }
         return new Money(this.amount.subtract(other.amount), this.currency);
@@ -79,7 +75,7 @@ public class Money {
         if (o == null || getClass() != o.getClass()) return false;
         Money money = (Money) o;
         return Objects.equals(amount, money.amount) &&
-                Objects.equals(currency, money.currency);
+                currency == money.currency;
     }
     
     @Override
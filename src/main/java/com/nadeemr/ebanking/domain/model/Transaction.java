@@ -27,9 +27,8 @@ public class Transaction {
     private BigDecimal amount;
     
     @NotNull
-    @Pattern(regexp = "^[A-Z]{3}$", message = "Currency must be a valid 3-letter code")
     @Column(nullable = false, length = 3)
-    private String currency;
+    private CurrencyUnit currency;
     
     @NotNull
     @Pattern(regexp = "^[A-Z]{2}[0-9]{2}[A-Z0-9]{4}[0-9]{7}([A-Z0-9]?){0,16}$", 
@@ -63,7 +62,7 @@ public class Transaction {
         this.updatedAt = now;
     }
     
-    public Transaction(String id, BigDecimal amount, String currency, String accountIban, 
+    public Transaction(String id, BigDecimal amount, CurrencyUnit currency, String accountIban, 
                       LocalDate valueDate, String description, String customerId) {
         this();
         this.id = id;
@@ -97,11 +96,11 @@ public class Transaction {
         this.amount = amount;
     }
     
-    public String getCurrency() {
+    public CurrencyUnit getCurrency() {
         return currency;
     }
     
-    public void setCurrency(String currency) {
+    public void setCurrency(CurrencyUnit currency) {
         this.currency = currency;
     }
     
@@ -171,7 +170,7 @@ public class Transaction {
         return "Transaction{" +
                 "id='" + id + '\'' +
                 ", amount=" + amount +
-                ", currency='" + currency + '\'' +
+                ", currency=" + currency +
                 ", accountIban='" + accountIban + '\'' +
                 ", valueDate=" + valueDate +
                 ", description='" + description + '\'' +
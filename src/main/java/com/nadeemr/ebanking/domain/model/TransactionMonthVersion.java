@@ -0,0 +1,83 @@
+package com.nadeemr.ebanking.domain.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Version stamp of a customer's transactions in one calendar month,
+ * incremented on every write so that readers can detect unchanged months.
+ */
+@Entity
+@Table(name = "transaction_month_versions")
+@IdClass(TransactionMonthVersion.Key.class)
+public class TransactionMonthVersion {
+
+    @Id
+    @Column(length = 12)
+    private String customerId;
+
+    @Id
+    @Column(length = 7)
+    private String monthKey; // yyyy-MM
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public TransactionMonthVersion() {}
+
+    public TransactionMonthVersion(String customerId, String monthKey, long version) {
+        this.customerId = customerId;
+        this.monthKey = monthKey;
+        this.version = version;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getMonthKey() {
+        return monthKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private String customerId;
+        private String monthKey;
+
+        public Key() {}
+
+        public Key(String customerId, String monthKey) {
+            this.customerId = customerId;
+            this.monthKey = monthKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(customerId, key.customerId) &&
+                    Objects.equals(monthKey, key.monthKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customerId, monthKey);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.domain.service.QueryStageMetrics.Stage;
+
+/**
+ * Cost of the transaction queries answered for one request, broken down the same way as the
+ * {@code transactions.query.stage} timers. Collected while it is open on the request thread; the
+ * sub-queries of a batch add to the cost of the request that submitted them, so it is safe to
+ * update from several threads.
+ * <pre>
+ * try (QueryCost cost = QueryCost.collect()) {
+ *     transactionService.getTransactions(customerId, searchCriteria);
+ *     cost.databaseNanos();
+ * }
+ * </pre>
+ */
+public final class QueryCost implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCost> current = new ThreadLocal<>();
+
+    // Guarded by this
+    private final long[] stageNanos = new long[Stage.values().length];
+    private long otherNanos;
+    private long pageRows;
+    private long monthRows;
+    private int queries;
+
+    private QueryCost() {
+    }
+
+    /**
+     * Start collecting the cost of the queries this thread answers, until it is closed
+     */
+    public static QueryCost collect() {
+        QueryCost cost = new QueryCost();
+        current.set(cost);
+        return cost;
+    }
+
+    /**
+     * The cost being collected on this thread, or null
+     */
+    static QueryCost current() {
+        return current.get();
+    }
+
+    @Override
+    public void close() {
+        if (current.get() == this) {
+            current.remove();
+        }
+    }
+
+    synchronized void add(long[] stageNanos, long queryNanos, int pageRows, int monthRows) {
+        long staged = 0;
+        for (int i = 0; i < stageNanos.length; i++) {
+            this.stageNanos[i] += stageNanos[i];
+            staged += stageNanos[i];
+        }
+        otherNanos += Math.max(0, queryNanos - staged);
+        this.pageRows += Math.max(0, pageRows);
+        this.monthRows += Math.max(0, monthRows);
+        queries++;
+    }
+
+    /**
+     * Work shared by several queries of the request, such as a month scanned once for a whole batch
+     */
+    synchronized void addShared(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    /**
+     * Time in the repository: the month version, the page with its count if any, and the month's rows
+     */
+    public synchronized long databaseNanos() {
+        return stageNanos[Stage.VERSION.ordinal()] + stageNanos[Stage.PAGE_QUERY.ordinal()]
+                + stageNanos[Stage.PAGE_COUNT_QUERY.ordinal()] + stageNanos[Stage.SUMMARY_QUERY.ordinal()];
+    }
+
+    public synchronized long exchangeRateNanos() {
+        return stageNanos[Stage.FX_FETCH.ordinal()];
+    }
+
+    /**
+     * Time mapping rows to DTOs and aggregating the summary, without the rates fetched meanwhile
+     */
+    public synchronized long mappingNanos() {
+        return stageNanos[Stage.MONTH_PARSE.ordinal()] + stageNanos[Stage.MAPPING.ordinal()]
+                + stageNanos[Stage.SUMMARY_AGGREGATION.ordinal()];
+    }
+
+    /**
+     * Time the queries took outside of their own stages, such as waiting for an identical query
+     * already in flight to answer
+     */
+    public synchronized long otherNanos() {
+        return otherNanos;
+    }
+
+    /**
+     * Rows on the pages answered
+     */
+    public synchronized long pageRows() {
+        return pageRows;
+    }
+
+    /**
+     * Rows summarised, counting a month shared by several queries of a batch for each of them
+     */
+    public synchronized long monthRows() {
+        return monthRows;
+    }
+
+    public synchronized int queries() {
+        return queries;
+    }
+}
@@ -0,0 +1,190 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in each stage of a transaction query, as {@code transactions.query.stage} timers
+ * tagged by stage with percentile histograms, and the rows each query loaded as
+ * {@code transactions.query.rows} summaries. Queries slower than the threshold are counted in
+ * {@code transactions.query.slow}, and one of them per log interval is logged with its breakdown.
+ */
+class QueryStageMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStageMetrics.class);
+
+    enum Stage {
+        MONTH_PARSE("month.parse"),
+        VERSION("version"),
+        PAGE_QUERY("page.query"),
+        // Spring Data runs the count right after the page select, so it is only measured together with it
+        PAGE_COUNT_QUERY("page.count.query"),
+        SUMMARY_QUERY("summary.query"),
+        FX_FETCH("fx.fetch"),
+        MAPPING("mapping"),
+        SUMMARY_AGGREGATION("summary.aggregation");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final DistributionSummary pageRows;
+    private final DistributionSummary monthRows;
+    private final Counter slowQueries;
+    private final long slowThresholdNanos;
+    private final long slowLogIntervalNanos;
+    private final AtomicLong nextSlowLog = new AtomicLong(Long.MIN_VALUE);
+
+    QueryStageMetrics(MeterRegistry meterRegistry, Duration slowThreshold, Duration slowLogInterval) {
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder("transactions.query.stage")
+                    .description("Time spent in one stage of a transaction query")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+        this.pageRows = rowsSummary("page", meterRegistry);
+        this.monthRows = rowsSummary("month", meterRegistry);
+        this.slowQueries = Counter.builder("transactions.query.slow")
+                .description("Transaction queries slower than the slow query threshold")
+                .register(meterRegistry);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowLogIntervalNanos = slowLogInterval.toNanos();
+    }
+
+    private static DistributionSummary rowsSummary(String rows, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("transactions.query.rows")
+                .description("Rows loaded by a transaction query")
+                .baseUnit("rows")
+                .tag("rows", rows)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stages of one query as it runs on one thread, recorded by {@link #record}. A stage running
+     * inside another, like the rates fetched while mapping, is not counted in the outer one; a stage
+     * running more than once, like the rates fetched for both the page and the summary, adds up.
+     */
+    static final class Recording {
+
+        private final long startNanos = System.nanoTime();
+        private final long[] stageNanos = new long[Stage.values().length];
+        private final boolean[] ran = new boolean[Stage.values().length];
+        private long nestedNanos;
+        private int pageRows = -1;
+        private int monthRows = -1;
+
+        <T> T time(Stage stage, Supplier<T> work) {
+            long outerNestedNanos = nestedNanos;
+            nestedNanos = 0;
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stageNanos[stage.ordinal()] += elapsed - nestedNanos;
+                ran[stage.ordinal()] = true;
+                nestedNanos = outerNestedNanos + elapsed;
+            }
+        }
+
+        void pageRows(int rows) {
+            pageRows = rows;
+        }
+
+        void monthRows(int rows) {
+            monthRows = rows;
+        }
+    }
+
+    Recording start() {
+        return new Recording();
+    }
+
+    /**
+     * @param cost the cost of the request the query was answered for, or null when none is collected
+     */
+    void record(Recording recording, QueryCost cost, String customerId, TransactionSearchDto searchCriteria) {
+        long elapsed = System.nanoTime() - recording.startNanos;
+        if (cost != null) {
+            cost.add(recording.stageNanos, elapsed, recording.pageRows, recording.monthRows);
+        }
+        for (Stage stage : Stage.values()) {
+            if (recording.ran[stage.ordinal()]) {
+                stageTimers[stage.ordinal()].record(recording.stageNanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+            }
+        }
+        if (recording.pageRows >= 0) {
+            pageRows.record(recording.pageRows);
+        }
+        if (recording.monthRows >= 0) {
+            monthRows.record(recording.monthRows);
+        }
+
+        if (elapsed < slowThresholdNanos) {
+            return;
+        }
+        slowQueries.increment();
+        long now = System.nanoTime();
+        long next = nextSlowLog.get();
+        if ((next == Long.MIN_VALUE || now - next >= 0) && nextSlowLog.compareAndSet(next, now + slowLogIntervalNanos)) {
+            logger.warn("Slow transaction query for customer {} took {} ms ({}): {}",
+                    customerId != null ? customerId : "-", String.format("%.1f", elapsed / 1e6), searchCriteria,
+                    breakdown(recording, elapsed));
+        }
+    }
+
+    /**
+     * Records work shared by several queries, such as a month scanned once for a whole batch
+     */
+    void recordShared(Stage stage, long nanos, QueryCost cost) {
+        stageTimers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        if (cost != null) {
+            cost.addShared(stage, nanos);
+        }
+    }
+
+    void recordMonthRows(int rows) {
+        monthRows.record(rows);
+    }
+
+    private static String breakdown(Recording recording, long elapsed) {
+        StringBuilder breakdown = new StringBuilder();
+        long staged = 0;
+        for (Stage stage : Stage.values()) {
+            if (recording.ran[stage.ordinal()]) {
+                long nanos = recording.stageNanos[stage.ordinal()];
+                staged += nanos;
+                breakdown.append(stage.tag).append('=').append(String.format("%.1fms", nanos / 1e6)).append(' ');
+            }
+        }
+        // Waiting for an identical query in flight, or for a shared month scan, lands here
+        breakdown.append("other=").append(String.format("%.1fms", Math.max(0, elapsed - staged) / 1e6));
+        if (recording.pageRows >= 0) {
+            breakdown.append(" pageRows=").append(recording.pageRows);
+        }
+        if (recording.monthRows >= 0) {
+            breakdown.append(" monthRows=").append(recording.monthRows);
+        }
+        return breakdown.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.api.dto.TransactionFields;
+import com.nadeemr.ebanking.api.dto.TransactionPageDto;
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateStore;
+import com.nadeemr.ebanking.infrastructure.repository.ReactiveTransactionReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read path of the reactive deployment mode. Fetches the page, count and month rows
+ * concurrently over R2DBC and hands them to {@link TransactionService#toPage} for the same
+ * conversion and summary as the servlet path. Assembly runs on the calling event loop while
+ * today's rates are in the store, and moves to the bounded elastic scheduler otherwise,
+ * since the upstream exchange rate call blocks.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionService.class);
+    private static final DateTimeFormatter YEAR_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ReactiveTransactionReader transactionReader;
+    private final TransactionService transactionService;
+    private final ExchangeRateStore exchangeRateStore;
+
+    public ReactiveTransactionService(ReactiveTransactionReader transactionReader,
+                                      TransactionService transactionService,
+                                      ExchangeRateStore exchangeRateStore) {
+        this.transactionReader = transactionReader;
+        this.transactionService = transactionService;
+        this.exchangeRateStore = exchangeRateStore;
+    }
+
+    /**
+     * Get paginated transactions for a customer in a specific month
+     */
+    public Mono<TransactionPageDto> getTransactions(String customerId, TransactionSearchDto searchCriteria) {
+        return Mono.defer(() -> {
+            logger.debug("Getting transactions for customer {} with criteria: {}", customerId, searchCriteria);
+
+            // Parse year-month and fail on an unknown base currency before touching the database
+            YearMonth yearMonth = YearMonth.parse(searchCriteria.getYearMonth(), YEAR_MONTH_FORMAT);
+            LocalDate startDate = yearMonth.atDay(1);
+            LocalDate endDate = yearMonth.atEndOfMonth();
+            CurrencyRegistry.resolve(searchCriteria.getBaseCurrency());
+
+            TransactionFields fields = TransactionFields.parse(searchCriteria.getFields());
+            String accountIban = searchCriteria.getAccountIban() != null && !searchCriteria.getAccountIban().trim().isEmpty()
+                    ? searchCriteria.getAccountIban()
+                    : null;
+
+            Mono<Optional<Slice<Transaction>>> page = fields.includesTransactions() || fields.includesPageInfo()
+                    ? fetchPage(customerId, startDate, endDate, accountIban, searchCriteria, fields.includesTotals())
+                            .map(Optional::of)
+                    : Mono.just(Optional.empty());
+            Mono<Optional<List<Transaction>>> month = fields.includesSummary()
+                    ? transactionReader.findMonth(customerId, startDate, endDate, accountIban).collectList()
+                            .map(Optional::of)
+                    : Mono.just(Optional.empty());
+
+            Mono<Tuple2<Optional<Slice<Transaction>>, Optional<List<Transaction>>>> rows = Mono.zip(page, month);
+            if (!exchangeRateStore.isLoaded(LocalDate.now())) {
+                // Hop before the assembly, which is where the upstream rate call blocks
+                rows = rows.publishOn(Schedulers.boundedElastic());
+            }
+            return rows.map(result -> transactionService.toPage(searchCriteria,
+                    result.getT1().orElse(null), result.getT2().orElse(null)));
+        });
+    }
+
+    /**
+     * Fetch one row past the page to tell whether another page follows, counting the month
+     * only when the totals are requested
+     */
+    private Mono<Slice<Transaction>> fetchPage(String customerId, LocalDate startDate, LocalDate endDate,
+                                               String accountIban, TransactionSearchDto searchCriteria,
+                                               boolean counted) {
+        Pageable pageable = PageRequest.of(searchCriteria.getPage(), searchCriteria.getSize());
+        Mono<List<Transaction>> rows = transactionReader
+                .findPage(customerId, startDate, endDate, accountIban, pageable.getOffset(), pageable.getPageSize() + 1)
+                .collectList();
+
+        if (counted) {
+            return Mono.zip(rows, transactionReader.count(customerId, startDate, endDate, accountIban))
+                    .map(result -> new PageImpl<>(pageContent(result.getT1(), pageable), pageable, result.getT2()));
+        }
+        return rows.map(result -> new SliceImpl<>(pageContent(result, pageable), pageable,
+                result.size() > pageable.getPageSize()));
+    }
+
+    private static List<Transaction> pageContent(List<Transaction> rows, Pageable pageable) {
+        return rows.size() > pageable.getPageSize() ? rows.subList(0, pageable.getPageSize()) : rows;
+    }
+}
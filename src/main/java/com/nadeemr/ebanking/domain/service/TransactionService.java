@@ -2,6 +2,10 @@ package com.nadeemr.ebanking.domain.service;
 
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
 import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 /**
  * Service interface for transaction operations
@@ -16,4 +20,35 @@ public interface TransactionService {
      * @return paginated transaction response with totals
      */
     TransactionPageDto getTransactions(String customerId, TransactionSearchDto searchCriteria);
+    
+    /**
+     * Get paginated transactions for a month version the caller has already read, e.g. for the ETag
+     * 
+     * @param customerId the customer identifier
+     * @param searchCriteria the search criteria including pagination and filters
+     * @param monthVersion the customer's current version of the searched month
+     * @return paginated transaction response with totals
+     */
+    TransactionPageDto getTransactions(String customerId, TransactionSearchDto searchCriteria, long monthVersion);
+    
+    /**
+     * Run several transaction queries for a customer as one batch
+     * 
+     * @param customerId the customer identifier
+     * @param queries the search criteria of each query
+     * @return one paginated response per query, in query order
+     */
+    List<TransactionPageDto> getTransactions(String customerId, List<TransactionSearchDto> queries);
+    
+    /**
+     * Build the paginated response from transactions the caller fetched itself, e.g. without blocking
+     * 
+     * @param searchCriteria the search criteria the transactions were fetched for
+     * @param transactionPage the requested page, a {@code Page} when the fieldset asks for totals;
+     *                        null when it asks for neither transactions nor page info
+     * @param monthTransactions every matching transaction of the month; null unless the summary is requested
+     * @return paginated transaction response with totals
+     */
+    TransactionPageDto toPage(TransactionSearchDto searchCriteria, Slice<Transaction> transactionPage,
+                              List<Transaction> monthTransactions);
 }
@@ -1,29 +1,51 @@
 package com.nadeemr.ebanking.domain.service;
 
 import com.nadeemr.ebanking.api.dto.TransactionDto;
+import com.nadeemr.ebanking.api.dto.TransactionFields;
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
 import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyTotals;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import com.nadeemr.ebanking.domain.model.FixedPointMoney;
 import com.nadeemr.ebanking.domain.model.Money;
 import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.domain.service.QueryStageMetrics.Stage;
 import com.nadeemr.ebanking.infrastructure.external.ExchangeRateProvider;
 import com.nadeemr.ebanking.infrastructure.repository.TransactionRepository;
+import com.nadeemr.ebanking.util.SingleFlight;
 import com.nadeemr.ebanking.util.TransactionMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,99 +53,360 @@ import java.util.stream.Collectors;
 public class TransactionServiceImpl implements TransactionService {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
+    private static final RoundingMode SUMMARY_ROUNDING = RoundingMode.HALF_EVEN;
+    private static final DateTimeFormatter YEAR_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    
+    /**
+     * Same order as the repository page queries
+     */
+    private static final Comparator<Transaction> PAGE_ORDER = Comparator
+            .comparing(Transaction::getValueDate)
+            .thenComparing(Transaction::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
     
     private final TransactionRepository transactionRepository;
     private final ExchangeRateProvider exchangeRateProvider;
     private final TransactionMapper transactionMapper;
+    private final Executor queryExecutor;
+    private final TransactionVersionService transactionVersionService;
+    private final SingleFlight<QueryKey, TransactionPageDto> queriesInFlight;
+    private final QueryStageMetrics queryStageMetrics;
     
     public TransactionServiceImpl(TransactionRepository transactionRepository,
                                  ExchangeRateProvider exchangeRateProvider,
-                                 TransactionMapper transactionMapper) {
+                                 TransactionMapper transactionMapper,
+                                 @Qualifier("applicationTaskExecutor") Executor queryExecutor,
+                                 TransactionVersionService transactionVersionService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.query.slow-threshold:500ms}") Duration slowQueryThreshold,
+                                 @Value("${app.query.slow-log-interval:10s}") Duration slowQueryLogInterval) {
         this.transactionRepository = transactionRepository;
         this.exchangeRateProvider = exchangeRateProvider;
         this.transactionMapper = transactionMapper;
+        this.queryExecutor = queryExecutor;
+        this.transactionVersionService = transactionVersionService;
+        this.queriesInFlight = new SingleFlight<>("transactions.query", meterRegistry);
+        this.queryStageMetrics = new QueryStageMetrics(meterRegistry, slowQueryThreshold, slowQueryLogInterval);
+    }
+    
+    /**
+     * Identity of a query for coalescing. The month version is part of it, so a call made after a
+     * write never shares a computation that started before the write.
+     */
+    private record QueryKey(String customerId, long monthVersion, String yearMonth, int page, int size,
+                            String baseCurrency, String accountIban, String fields) {
     }
     
+    /**
+     * Source of the rates into a base currency, indexed by source currency ordinal
+     */
+    @FunctionalInterface
+    interface RateLookup {
+        ExchangeRate[] ratesInto(CurrencyUnit baseCurrency, List<CurrencyUnit> currencies);
+    }
+    
+    /**
+     * Identical concurrent calls share one computation, so a herd of sessions polling the same page
+     * costs one set of queries and one rate lookup. No transaction is held here: waiting callers would
+     * otherwise each pin a connection, and the repository calls run in their own read-only ones.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionPageDto getTransactions(String customerId, TransactionSearchDto searchCriteria) {
+        QueryStageMetrics.Recording recording = queryStageMetrics.start();
+        YearMonth yearMonth = recording.time(Stage.MONTH_PARSE,
+                () -> YearMonth.parse(searchCriteria.getYearMonth(), YEAR_MONTH_FORMAT));
+        long monthVersion = recording.time(Stage.VERSION,
+                () -> transactionVersionService.currentVersion(customerId, yearMonth));
+        return coalescedQuery(customerId, searchCriteria, monthVersion, recording);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionPageDto getTransactions(String customerId, TransactionSearchDto searchCriteria, long monthVersion) {
+        QueryStageMetrics.Recording recording = queryStageMetrics.start();
+        return coalescedQuery(customerId, searchCriteria, monthVersion, recording);
+    }
+    
+    private TransactionPageDto coalescedQuery(String customerId, TransactionSearchDto searchCriteria, long monthVersion,
+                                              QueryStageMetrics.Recording recording) {
+        QueryKey key = new QueryKey(customerId, monthVersion,
+                searchCriteria.getYearMonth(), searchCriteria.getPage(), searchCriteria.getSize(),
+                searchCriteria.getBaseCurrency(), searchCriteria.getAccountIban(), searchCriteria.getFields());
+        // The computation runs on this thread when it isn't coalesced, so its stages land in this recording
+        TransactionPageDto result = queriesInFlight.execute(key,
+                () -> query(customerId, searchCriteria, this::currentRates, null, recording));
+        queryStageMetrics.record(recording, QueryCost.current(), customerId, searchCriteria);
+        return result;
+    }
+    
+    /**
+     * Runs the sub-queries concurrently on the query executor. Identical sub-queries run once,
+     * rates are loaded once per base currency, and a month whose summary any sub-query needs is
+     * scanned once and then paged and summarised in memory by every sub-query on that month.
+     * No transaction is held here or by the sub-queries on the executor: each repository call runs
+     * in its own read-only one, so a sub-query's page and summary aren't read from one snapshot.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionPageDto> getTransactions(String customerId, List<TransactionSearchDto> queries) {
+        logger.debug("Getting {} batched queries for customer {}", queries.size(), customerId);
+        
+        List<TransactionSearchDto> distinctQueries = new ArrayList<>(new LinkedHashSet<>(queries));
+        QueryCost cost = QueryCost.current();
+        
+        // Validate every sub-query up front so a bad one fails the batch before anything is dispatched
+        Map<YearMonth, CompletableFuture<List<Transaction>>> monthScans = new HashMap<>();
+        Map<CurrencyUnit, ExchangeRate[]> ratesByBase = new HashMap<>();
+        List<CurrencyUnit> quotedCurrencies = null;
+        LocalDate currentDate = LocalDate.now();
+        
+        for (TransactionSearchDto query : distinctQueries) {
+            YearMonth yearMonth = YearMonth.parse(query.getYearMonth(), YEAR_MONTH_FORMAT);
+            CurrencyUnit baseCurrency = CurrencyRegistry.resolve(query.getBaseCurrency());
+            TransactionFields fields = TransactionFields.parse(query.getFields());
+            
+            if (fields.includesSummary()) {
+                monthScans.computeIfAbsent(yearMonth, month -> CompletableFuture.supplyAsync(
+                        () -> scanMonth(customerId, month, cost),
+                        queryExecutor));
+            }
+            
+            if (fields.includesSummary() || fields.includes(TransactionFields.TransactionField.CONVERTED_AMOUNT)) {
+                if (quotedCurrencies == null) {
+                    quotedCurrencies = new ArrayList<>(exchangeRateProvider.getSupportedCurrencies());
+                }
+                List<CurrencyUnit> currencies = quotedCurrencies;
+                ratesByBase.computeIfAbsent(baseCurrency, base -> ratesByOrdinal(currencies, base, currentDate));
+            }
+        }
+        RateLookup sharedRates = (baseCurrency, currencies) -> ratesByBase.get(baseCurrency);
+        
+        Map<TransactionSearchDto, CompletableFuture<TransactionPageDto>> results = new LinkedHashMap<>();
+        for (TransactionSearchDto query : distinctQueries) {
+            CompletableFuture<List<Transaction>> monthScan =
+                    monthScans.get(YearMonth.parse(query.getYearMonth(), YEAR_MONTH_FORMAT));
+            results.put(query, monthScan != null
+                    ? monthScan.thenApplyAsync(rows -> recordedQuery(customerId, query, sharedRates, rows, cost), queryExecutor)
+                    : CompletableFuture.supplyAsync(() -> recordedQuery(customerId, query, sharedRates, null, cost),
+                            queryExecutor));
+        }
+        
+        try {
+            CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        
+        return queries.stream()
+                .map(query -> results.get(query).join())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Scan a customer's month once for every sub-query of a batch that needs it
+     */
+    private List<Transaction> scanMonth(String customerId, YearMonth month, QueryCost cost) {
+        long start = System.nanoTime();
+        List<Transaction> rows = transactionRepository.findAllByCustomerIdAndValueDateBetween(
+                customerId, month.atDay(1), month.atEndOfMonth());
+        queryStageMetrics.recordShared(Stage.SUMMARY_QUERY, System.nanoTime() - start, cost);
+        queryStageMetrics.recordMonthRows(rows.size());
+        return rows;
+    }
+    
+    private TransactionPageDto recordedQuery(String customerId, TransactionSearchDto searchCriteria, RateLookup rates,
+                                             List<Transaction> monthTransactions, QueryCost cost) {
+        QueryStageMetrics.Recording recording = queryStageMetrics.start();
+        TransactionPageDto result = query(customerId, searchCriteria, rates, monthTransactions, recording);
+        queryStageMetrics.record(recording, cost, customerId, searchCriteria);
+        return result;
+    }
+    
+    /**
+     * Answer one query. When the customer's whole month has already been scanned, the page and
+     * summary are taken from those rows instead of querying the repository again.
+     */
+    private TransactionPageDto query(String customerId, TransactionSearchDto searchCriteria, RateLookup rates,
+                                     List<Transaction> monthTransactions, QueryStageMetrics.Recording recording) {
         logger.debug("Getting transactions for customer {} with criteria: {}", customerId, searchCriteria);
         
         // Parse year-month
-        YearMonth yearMonth = YearMonth.parse(searchCriteria.getYearMonth(), DateTimeFormatter.ofPattern("yyyy-MM"));
+        YearMonth yearMonth = YearMonth.parse(searchCriteria.getYearMonth(), YEAR_MONTH_FORMAT);
         LocalDate startDate = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
         
+        // Resolve the base currency once; past this point currencies are compared by reference
+        CurrencyUnit baseCurrency = CurrencyRegistry.resolve(searchCriteria.getBaseCurrency());
+        
+        // Only run the stages the requested fieldset needs
+        TransactionFields fields = TransactionFields.parse(searchCriteria.getFields());
+        boolean filterByAccount = searchCriteria.getAccountIban() != null && !searchCriteria.getAccountIban().trim().isEmpty();
+        
         // Create pageable
         Pageable pageable = PageRequest.of(searchCriteria.getPage(), searchCriteria.getSize());
         
-        // Fetch paginated transactions
-        Page<Transaction> transactionPage;
-        List<Transaction> allTransactions;
-        
-        if (searchCriteria.getAccountIban() != null && !searchCriteria.getAccountIban().trim().isEmpty()) {
-            transactionPage = transactionRepository.findByCustomerIdAndValueDateBetweenAndAccountIban(
-                    customerId, startDate, endDate, searchCriteria.getAccountIban(), pageable);
-            allTransactions = transactionRepository.findAllByCustomerIdAndValueDateBetweenAndAccountIban(
-                    customerId, startDate, endDate, searchCriteria.getAccountIban());
-        } else {
-            transactionPage = transactionRepository.findByCustomerIdAndValueDateBetween(
-                    customerId, startDate, endDate, pageable);
-            allTransactions = transactionRepository.findAllByCustomerIdAndValueDateBetween(
-                    customerId, startDate, endDate);
+        // Fetch paginated transactions, counting the month only when the totals are requested
+        List<Transaction> matchingTransactions = monthTransactions == null || !filterByAccount
+                ? monthTransactions
+                : monthTransactions.stream()
+                        .filter(transaction -> searchCriteria.getAccountIban().equals(transaction.getAccountIban()))
+                        .collect(Collectors.toList());
+        Slice<Transaction> transactionPage = null;
+        if (fields.includesTransactions() || fields.includesPageInfo()) {
+            if (matchingTransactions != null) {
+                transactionPage = pageOf(matchingTransactions, pageable);
+            } else if (fields.includesTotals()) {
+                transactionPage = recording.time(Stage.PAGE_COUNT_QUERY, () -> filterByAccount
+                        ? transactionRepository.findByCustomerIdAndValueDateBetweenAndAccountIban(
+                                customerId, startDate, endDate, searchCriteria.getAccountIban(), pageable)
+                        : transactionRepository.findByCustomerIdAndValueDateBetween(
+                                customerId, startDate, endDate, pageable));
+            } else {
+                transactionPage = recording.time(Stage.PAGE_QUERY, () -> filterByAccount
+                        ? transactionRepository.findSliceByCustomerIdAndValueDateBetweenAndAccountIban(
+                                customerId, startDate, endDate, searchCriteria.getAccountIban(), pageable)
+                        : transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+                                customerId, startDate, endDate, pageable));
+            }
+            recording.pageRows(transactionPage.getNumberOfElements());
+        }
+        
+        // Fetch all transactions in the month for the summary
+        List<Transaction> allTransactions = null;
+        if (fields.includesSummary()) {
+            allTransactions = matchingTransactions != null
+                    ? matchingTransactions
+                    : recording.time(Stage.SUMMARY_QUERY, () -> filterByAccount
+                    ? transactionRepository.findAllByCustomerIdAndValueDateBetweenAndAccountIban(
+                            customerId, startDate, endDate, searchCriteria.getAccountIban())
+                    : transactionRepository.findAllByCustomerIdAndValueDateBetween(
+                            customerId, startDate, endDate));
+            recording.monthRows(allTransactions.size());
         }
         
-        // Convert transactions to DTOs with currency conversion
-        List<TransactionDto> transactionDtos = convertTransactionsWithExchangeRates(
-                transactionPage.getContent(), searchCriteria.getBaseCurrency());
+        logger.debug("Found {} transactions for customer {} in month {}", 
+                    transactionPage != null ? transactionPage.getNumberOfElements() : 0, customerId, searchCriteria.getYearMonth());
+        
+        return assemble(searchCriteria, transactionPage, allTransactions, rates, recording);
+    }
+    
+    /**
+     * Works purely on the given rows, so it doesn't take a database transaction (or connection)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionPageDto toPage(TransactionSearchDto searchCriteria, Slice<Transaction> transactionPage,
+                                     List<Transaction> monthTransactions) {
+        QueryStageMetrics.Recording recording = queryStageMetrics.start();
+        TransactionPageDto result = assemble(searchCriteria, transactionPage, monthTransactions, this::currentRates,
+                recording);
+        queryStageMetrics.record(recording, QueryCost.current(), null, searchCriteria);
+        return result;
+    }
+    
+    /**
+     * Build the response from the fetched page and month, running only the stages the fieldset needs
+     */
+    private TransactionPageDto assemble(TransactionSearchDto searchCriteria, Slice<Transaction> transactionPage,
+                                        List<Transaction> monthTransactions, RateLookup rates,
+                                        QueryStageMetrics.Recording recording) {
+        CurrencyUnit baseCurrency = CurrencyRegistry.resolve(searchCriteria.getBaseCurrency());
+        TransactionFields fields = TransactionFields.parse(searchCriteria.getFields());
+        RateLookup timedRates = (base, currencies) -> recording.time(Stage.FX_FETCH, () -> rates.ratesInto(base, currencies));
+        
+        // Convert transactions to DTOs, with currency conversion only when converted amounts are requested
+        List<TransactionDto> transactionDtos = null;
+        if (fields.includesTransactions()) {
+            transactionDtos = recording.time(Stage.MAPPING, () -> {
+                List<TransactionDto> dtos = fields.includes(TransactionFields.TransactionField.CONVERTED_AMOUNT)
+                        ? convertTransactionsWithExchangeRates(transactionPage.getContent(), baseCurrency, timedRates)
+                        : toDtos(transactionPage.getContent(), baseCurrency);
+                dtos.forEach(fields::trim);
+                return dtos;
+            });
+        }
         
         // Calculate summary for all transactions in the month
-        TransactionPageDto.TransactionSummary summary = calculateSummary(
-                allTransactions, searchCriteria.getBaseCurrency());
+        TransactionPageDto.TransactionSummary summary = null;
+        if (fields.includesSummary()) {
+            summary = recording.time(Stage.SUMMARY_AGGREGATION,
+                    () -> calculateSummary(monthTransactions, baseCurrency, timedRates));
+        }
         
         // Create page info
-        TransactionPageDto.PageInfo pageInfo = new TransactionPageDto.PageInfo(
-                transactionPage.getNumber(),
-                transactionPage.getSize(),
-                transactionPage.getTotalElements(),
-                transactionPage.getTotalPages(),
-                transactionPage.isFirst(),
-                transactionPage.isLast()
-        );
-        
-        logger.debug("Found {} transactions for customer {} in month {}", 
-                    transactionPage.getTotalElements(), customerId, searchCriteria.getYearMonth());
+        TransactionPageDto.PageInfo pageInfo = null;
+        if (fields.includesPageInfo()) {
+            Page<Transaction> countedPage = transactionPage instanceof Page<Transaction> page ? page : null;
+            pageInfo = fields.trim(new TransactionPageDto.PageInfo(
+                    transactionPage.getNumber(),
+                    transactionPage.getSize(),
+                    countedPage != null ? countedPage.getTotalElements() : null,
+                    countedPage != null ? countedPage.getTotalPages() : null,
+                    transactionPage.isFirst(),
+                    transactionPage.isLast()
+            ));
+        }
         
-        return new TransactionPageDto(transactionDtos, pageInfo, summary);
+        TransactionPageDto result = new TransactionPageDto(transactionDtos, pageInfo, summary);
+        result.setSparse(fields.isSparse());
+        return result;
+    }
+    
+    /**
+     * Page already loaded transactions the way the repository would
+     */
+    private static Page<Transaction> pageOf(List<Transaction> transactions, Pageable pageable) {
+        List<Transaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(PAGE_ORDER);
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+    
+    /**
+     * Rates as of today from the provider
+     */
+    private ExchangeRate[] currentRates(CurrencyUnit baseCurrency, List<CurrencyUnit> currencies) {
+        return ratesByOrdinal(currencies, baseCurrency, LocalDate.now());
+    }
+    
+    /**
+     * Map transactions to DTOs without converting amounts
+     */
+    private List<TransactionDto> toDtos(List<Transaction> transactions, CurrencyUnit baseCurrency) {
+        List<TransactionDto> dtos = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            TransactionDto dto = transactionMapper.toDto(transaction);
+            dto.setBaseCurrency(baseCurrency.getCode());
+            dtos.add(dto);
+        }
+        return dtos;
     }
     
-    private List<TransactionDto> convertTransactionsWithExchangeRates(List<Transaction> transactions, String baseCurrency) {
-        // Get unique currencies and current date
-        List<String> currencies = transactions.stream()
+    private List<TransactionDto> convertTransactionsWithExchangeRates(List<Transaction> transactions, CurrencyUnit baseCurrency,
+                                                                     RateLookup rates) {
+        // Get unique currencies
+        List<CurrencyUnit> currencies = transactions.stream()
                 .map(Transaction::getCurrency)
                 .distinct()
                 .collect(Collectors.toList());
         
-        LocalDate currentDate = LocalDate.now();
-        
         // Fetch exchange rates for all currencies
-        Map<String, ExchangeRate> exchangeRateMap = exchangeRateProvider
-                .getExchangeRates(currencies, baseCurrency, currentDate)
-                .stream()
-                .collect(Collectors.toMap(
-                        rate -> rate.getFromCurrency() + "_" + rate.getToCurrency(),
-                        rate -> rate
-                ));
+        ExchangeRate[] exchangeRates = rates.ratesInto(baseCurrency, currencies);
         
         // Convert transactions with exchange rates
         return transactions.stream()
                 .map(transaction -> {
                     TransactionDto dto = transactionMapper.toDto(transaction);
-                    dto.setBaseCurrency(baseCurrency);
+                    dto.setBaseCurrency(baseCurrency.getCode());
                     
                     // Convert amount if different currency
-                    if (!transaction.getCurrency().equals(baseCurrency)) {
-                        String rateKey = transaction.getCurrency() + "_" + baseCurrency;
-                        ExchangeRate exchangeRate = exchangeRateMap.get(rateKey);
+                    if (transaction.getCurrency() != baseCurrency) {
+                        ExchangeRate exchangeRate = exchangeRates[transaction.getCurrency().getOrdinal()];
                         
                         if (exchangeRate != null) {
                             Money originalMoney = new Money(transaction.getAmount(), transaction.getCurrency());
@@ -142,33 +425,63 @@ public class TransactionServiceImpl implements TransactionService {
                 .collect(Collectors.toList());
     }
     
-    private TransactionPageDto.TransactionSummary calculateSummary(List<Transaction> transactions, String baseCurrency) {
+    private TransactionPageDto.TransactionSummary calculateSummary(List<Transaction> transactions, CurrencyUnit baseCurrency,
+                                                                   RateLookup rates) {
+        // Accumulate credits and debits per currency in fixed-point units, in parallel for very large months.
+        // Conversion is linear, so each currency total is converted once instead of converting every transaction.
+        CurrencyTotals totals;
+        try {
+            totals = CurrencyTotals.of(transactions);
+        } catch (ArithmeticException e) {
+            logger.warn("Fixed-point accumulation overflowed for {} transactions, using BigDecimal", transactions.size());
+            return calculateSummaryExact(transactions, baseCurrency, rates);
+        }
+        
+        List<CurrencyUnit> currencies = totals.getCurrencies();
+        ExchangeRate[] exchangeRates = rates.ratesInto(baseCurrency, currencies);
+        
         BigDecimal totalCredit = BigDecimal.ZERO;
         BigDecimal totalDebit = BigDecimal.ZERO;
         
-        LocalDate currentDate = LocalDate.now();
+        for (CurrencyUnit currency : currencies) {
+            FixedPointMoney credit = totals.getCredit(currency);
+            FixedPointMoney debit = totals.getDebit(currency);
+            ExchangeRate exchangeRate = currency == baseCurrency ? null : exchangeRates[currency.getOrdinal()];
+            
+            if (exchangeRate != null) {
+                totalCredit = totalCredit.add(credit.convert(exchangeRate));
+                totalDebit = totalDebit.add(debit.convert(exchangeRate));
+            } else {
+                totalCredit = totalCredit.add(credit.toBigDecimal());
+                totalDebit = totalDebit.add(debit.toBigDecimal());
+            }
+        }
+        
+        return roundedSummary(totalCredit, totalDebit, baseCurrency);
+    }
+    
+    /**
+     * Reference summary calculation converting every transaction with BigDecimal arithmetic
+     */
+    TransactionPageDto.TransactionSummary calculateSummaryExact(List<Transaction> transactions, CurrencyUnit baseCurrency,
+                                                                RateLookup rates) {
+        BigDecimal totalCredit = BigDecimal.ZERO;
+        BigDecimal totalDebit = BigDecimal.ZERO;
         
         // Get unique currencies for exchange rate lookup
-        List<String> currencies = transactions.stream()
+        List<CurrencyUnit> currencies = transactions.stream()
                 .map(Transaction::getCurrency)
                 .distinct()
                 .collect(Collectors.toList());
         
-        Map<String, ExchangeRate> exchangeRateMap = exchangeRateProvider
-                .getExchangeRates(currencies, baseCurrency, currentDate)
-                .stream()
-                .collect(Collectors.toMap(
-                        rate -> rate.getFromCurrency() + "_" + rate.getToCurrency(),
-                        rate -> rate
-                ));
+        ExchangeRate[] exchangeRates = rates.ratesInto(baseCurrency, currencies);
         
         for (Transaction transaction : transactions) {
             BigDecimal convertedAmount = transaction.getAmount();
             
             // Convert amount if different currency
-            if (!transaction.getCurrency().equals(baseCurrency)) {
-                String rateKey = transaction.getCurrency() + "_" + baseCurrency;
-                ExchangeRate exchangeRate = exchangeRateMap.get(rateKey);
+            if (transaction.getCurrency() != baseCurrency) {
+                ExchangeRate exchangeRate = exchangeRates[transaction.getCurrency().getOrdinal()];
                 
                 if (exchangeRate != null) {
                     Money originalMoney = new Money(transaction.getAmount(), transaction.getCurrency());
@@ -185,8 +498,28 @@ public class TransactionServiceImpl implements TransactionService {
             }
         }
         
-        BigDecimal netAmount = totalCredit.subtract(totalDebit);
+        return roundedSummary(totalCredit, totalDebit, baseCurrency);
+    }
+    
+    /**
+     * Fetch the rates into the base currency, indexed by source currency ordinal
+     */
+    private ExchangeRate[] ratesByOrdinal(List<CurrencyUnit> currencies, CurrencyUnit baseCurrency, LocalDate date) {
+        ExchangeRate[] exchangeRates = new ExchangeRate[CurrencyRegistry.size()];
+        for (ExchangeRate rate : exchangeRateProvider.getExchangeRates(currencies, baseCurrency, date)) {
+            if (rate.getToCurrency() == baseCurrency) {
+                exchangeRates[rate.getFromCurrency().getOrdinal()] = rate;
+            }
+        }
+        return exchangeRates;
+    }
+    
+    private TransactionPageDto.TransactionSummary roundedSummary(BigDecimal totalCredit, BigDecimal totalDebit,
+                                                                 CurrencyUnit baseCurrency) {
+        int scale = baseCurrency.getMinorUnitDigits();
+        BigDecimal credit = totalCredit.setScale(scale, SUMMARY_ROUNDING);
+        BigDecimal debit = totalDebit.setScale(scale, SUMMARY_ROUNDING);
         
-        return new TransactionPageDto.TransactionSummary(totalCredit, totalDebit, netAmount, baseCurrency);
+        return new TransactionPageDto.TransactionSummary(credit, debit, credit.subtract(debit), baseCurrency.getCode());
     }
 }
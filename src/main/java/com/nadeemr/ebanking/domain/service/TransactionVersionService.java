@@ -0,0 +1,101 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.infrastructure.cache.ResponseBytesCache;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateSnapshot;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateStore;
+import com.nadeemr.ebanking.infrastructure.repository.TransactionMonthVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Tracks a version stamp per customer and month, bumped by every transaction write,
+ * and derives response ETags from it. Stamps live in the database so that every
+ * instance agrees on them regardless of which instance consumed the write.
+ */
+@Service
+public class TransactionVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionVersionService.class);
+
+    private final TransactionMonthVersionRepository versionRepository;
+    private final ExchangeRateStore exchangeRateStore;
+    private final ResponseBytesCache responseBytesCache;
+
+    public TransactionVersionService(TransactionMonthVersionRepository versionRepository,
+                                     ExchangeRateStore exchangeRateStore,
+                                     ResponseBytesCache responseBytesCache) {
+        this.versionRepository = versionRepository;
+        this.exchangeRateStore = exchangeRateStore;
+        this.responseBytesCache = responseBytesCache;
+    }
+
+    /**
+     * Record a write to the customer's transactions for the month of the given value date.
+     * Joins the caller's transaction so the bump commits together with the write.
+     * The month's serialized responses are dropped as well; they are keyed by the old
+     * version's ETag and could no longer be served anyway.
+     */
+    @Transactional
+    public void bump(String customerId, LocalDate valueDate) {
+        YearMonth yearMonth = YearMonth.from(valueDate);
+        String monthKey = yearMonth.toString();
+        versionRepository.upsertIncrement(customerId, monthKey, LocalDateTime.now());
+        responseBytesCache.evict(customerId, yearMonth);
+        logger.debug("Bumped transaction version for customer {} in month {}", customerId, monthKey);
+    }
+
+    @Transactional(readOnly = true)
+    public long currentVersion(String customerId, YearMonth yearMonth) {
+        return versionRepository.findVersion(customerId, yearMonth.toString()).orElse(0L);
+    }
+
+    /**
+     * Entity tag for a transaction page, derived from the month version the caller has read,
+     * every request parameter, the media type the page is rendered in and the exchange rates
+     * the amounts would be converted with.
+     *
+     * @return empty when today's rates are not loaded and the response can't be versioned
+     */
+    public Optional<String> getETag(String customerId, TransactionSearchDto searchCriteria, long version,
+                                    String mediaType) {
+        Optional<ExchangeRateSnapshot> rates = exchangeRateStore.get(LocalDate.now());
+        if (rates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String key = String.join("|",
+                customerId,
+                YearMonth.parse(searchCriteria.getYearMonth()).toString(),
+                String.valueOf(searchCriteria.getPage()),
+                String.valueOf(searchCriteria.getSize()),
+                searchCriteria.getBaseCurrency(),
+                String.valueOf(searchCriteria.getAccountIban()),
+                String.valueOf(searchCriteria.getFields()),
+                mediaType,
+                rates.get().getDate().toString(),
+                rates.get().getFingerprint());
+
+        return Optional.of("\"" + version + "-" + digest(key) + "\"");
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.nadeemr.ebanking.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Already serialized transaction responses, so that a hot page is written to the socket without
+ * running Jackson again. Entries are keyed by their ETag, which changes with the month version
+ * and the rates, so a stale entry can never be served; the writes to a customer's month still
+ * evict its entries right away to free the memory. Bounded by the total size of the bodies,
+ * evicting the least recently used entries first.
+ */
+@Component
+public class ResponseBytesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseBytesCache.class);
+
+    /**
+     * Rough per-entry bookkeeping cost on top of the body, counted against the size bound
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    public record CachedResponse(byte[] body, String eTag, String contentType) {
+    }
+
+    private record Stored(String monthKey, CachedResponse response) {
+        long weight() {
+            return response.body().length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<String, Stored> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Set<String>> keysByMonth = new HashMap<>();
+    private long sizeBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ResponseBytesCache(@Value("${app.response-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${app.response-cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                              MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.hits = Counter.builder("transactions.response.cache.requests")
+                .description("Responses written from already serialized bytes")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("transactions.response.cache.requests")
+                .description("Responses that had to be serialized")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("transactions.response.cache.evictions")
+                .description("Serialized responses evicted to stay within the size bound")
+                .register(meterRegistry);
+        Gauge.builder("transactions.response.cache.size", this, ResponseBytesCache::getSizeBytes)
+                .description("Bytes held by serialized responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<CachedResponse> get(String customerId, String eTag, String contentType) {
+        Stored stored;
+        synchronized (this) {
+            stored = entries.get(key(customerId, eTag, contentType));
+        }
+        (stored != null ? hits : misses).increment();
+        return Optional.ofNullable(stored).map(Stored::response);
+    }
+
+    public void put(String customerId, YearMonth yearMonth, CachedResponse response) {
+        Stored stored = new Stored(monthKey(customerId, yearMonth), response);
+        if (stored.weight() > maxEntryBytes || stored.weight() > maxBytes) {
+            return;
+        }
+        String key = key(customerId, response.eTag(), response.contentType());
+
+        synchronized (this) {
+            Stored previous = entries.put(key, stored);
+            if (previous != null) {
+                sizeBytes -= previous.weight();
+            }
+            sizeBytes += stored.weight();
+            keysByMonth.computeIfAbsent(stored.monthKey(), month -> new HashSet<>()).add(key);
+
+            Iterator<Map.Entry<String, Stored>> eldest = entries.entrySet().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Stored> entry = eldest.next();
+                eldest.remove();
+                forget(entry.getKey(), entry.getValue());
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drop every response of the customer's month, after a write to it
+     */
+    public void evict(String customerId, YearMonth yearMonth) {
+        int evicted;
+        synchronized (this) {
+            Set<String> keys = keysByMonth.remove(monthKey(customerId, yearMonth));
+            if (keys == null) {
+                return;
+            }
+            for (String key : keys) {
+                Stored stored = entries.remove(key);
+                if (stored != null) {
+                    sizeBytes -= stored.weight();
+                }
+            }
+            evicted = keys.size();
+        }
+        logger.debug("Evicted {} cached responses of customer {} in month {}", evicted, customerId, yearMonth);
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    private void forget(String key, Stored stored) {
+        sizeBytes -= stored.weight();
+        Set<String> monthKeys = keysByMonth.get(stored.monthKey());
+        if (monthKeys != null) {
+            monthKeys.remove(key);
+            if (monthKeys.isEmpty()) {
+                keysByMonth.remove(stored.monthKey());
+            }
+        }
+    }
+
+    private static String key(String customerId, String eTag, String contentType) {
+        return customerId + "|" + eTag + "|" + contentType;
+    }
+
+    private static String monthKey(String customerId, YearMonth yearMonth) {
+        return customerId + "|" + yearMonth;
+    }
+}
@@ -0,0 +1,129 @@
+package com.nadeemr.ebanking.infrastructure.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.dto.TransactionBatchRequestDto;
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands the shape of every transaction request to the {@link RequestShapeRecorder} once it is
+ * answered, including the requests shed by the concurrency limit. Query parameters are read from
+ * the URL, and from the JSON body for search and batch requests. The customer id is replaced by a
+ * bucket of a salted hash; the salt is drawn per instance and never written out. The live feed
+ * is not captured since its requests stay open by design.
+ */
+public class RequestCaptureFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCaptureFilter.class);
+
+    private final RequestShapeRecorder recorder;
+    private final ObjectMapper objectMapper;
+    private final int customerBuckets;
+    private final byte[] salt = new byte[16];
+
+    public RequestCaptureFilter(RequestShapeRecorder recorder, ObjectMapper objectMapper, int customerBuckets) {
+        this.recorder = recorder;
+        this.objectMapper = objectMapper;
+        this.customerBuckets = customerBuckets;
+        new SecureRandom().nextBytes(salt);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        HttpServletRequest captured = "POST".equals(request.getMethod())
+                ? new ContentCachingRequestWrapper(request)
+                : request;
+        try {
+            filterChain.doFilter(captured, response);
+        } finally {
+            long end = System.nanoTime();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String customerId = authentication != null ? authentication.getName() : "anonymous";
+            recorder.record(new RequestShape(
+                    recorder.offsetMicros(start),
+                    request.getMethod() + " " + request.getRequestURI(),
+                    customerBucket(customerId),
+                    request.getHeader(HttpHeaders.IF_NONE_MATCH) != null,
+                    queries(captured),
+                    response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMicros(end - start)));
+        }
+    }
+
+    int customerBucket(String customerId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            byte[] hash = digest.digest(customerId.getBytes(StandardCharsets.UTF_8));
+            return (int) Math.floorMod(ByteBuffer.wrap(hash).getLong(), (long) customerBuckets);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private List<RequestShape.Query> queries(HttpServletRequest request) {
+        if (!(request instanceof ContentCachingRequestWrapper wrapper)) {
+            return List.of(new RequestShape.Query(
+                    request.getParameter("yearMonth"),
+                    integer(request.getParameter("page")),
+                    integer(request.getParameter("size")),
+                    request.getParameter("baseCurrency"),
+                    request.getParameter("accountIban") != null,
+                    request.getParameter("fields")));
+        }
+        // Only what the controller read is cached, nothing when the request was rejected before
+        byte[] body = wrapper.getContentAsByteArray();
+        if (body.length == 0) {
+            return List.of();
+        }
+        try {
+            if (request.getRequestURI().endsWith("/batch")) {
+                TransactionBatchRequestDto batch = objectMapper.readValue(body, TransactionBatchRequestDto.class);
+                return batch.getQueries() == null ? List.of() : batch.getQueries().stream().map(this::query).toList();
+            }
+            return List.of(query(objectMapper.readValue(body, TransactionSearchDto.class)));
+        } catch (IOException e) {
+            logger.debug("Request body of {} not captured: {}", request.getRequestURI(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private RequestShape.Query query(TransactionSearchDto search) {
+        return new RequestShape.Query(search.getYearMonth(), search.getPage(), search.getSize(),
+                search.getBaseCurrency(), search.getAccountIban() != null, search.getFields());
+    }
+
+    private static Integer integer(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
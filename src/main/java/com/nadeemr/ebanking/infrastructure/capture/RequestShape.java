@@ -0,0 +1,27 @@
+package com.nadeemr.ebanking.infrastructure.capture;
+
+import java.util.List;
+
+/**
+ * One captured transaction request, reduced to what drives its cost: no customer id, IBAN,
+ * token or response data is kept. The customer is only known by a bucket derived from a salted
+ * hash, so the per-customer skew survives while the customer can't be identified.
+ *
+ * @param offsetMicros   arrival since the capture started
+ * @param endpoint       method and path, e.g. {@code GET /api/v1/transactions}
+ * @param customerBucket bucket of the customer, in {@code [0, app.capture.customer-buckets)}
+ * @param conditional    whether the request carried an {@code If-None-Match} header
+ * @param queries        the query of the request, one per query of a batch
+ * @param status         response status
+ * @param durationMicros time spent in the application
+ */
+public record RequestShape(long offsetMicros, String endpoint, int customerBucket, boolean conditional,
+                           List<Query> queries, int status, long durationMicros) {
+
+    /**
+     * Parameters of one query; {@code null} when the request didn't set them
+     */
+    public record Query(String yearMonth, Integer page, Integer size, String baseCurrency,
+                        boolean accountIban, String fields) {
+    }
+}
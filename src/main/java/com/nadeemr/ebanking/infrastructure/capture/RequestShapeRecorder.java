@@ -0,0 +1,106 @@
+package com.nadeemr.ebanking.infrastructure.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends captured {@link RequestShape}s to a local file, one JSON document per line. Requests
+ * only hand their shape to a bounded queue and never wait for the disk; when the writer falls
+ * behind, shapes are dropped and counted rather than slowing the requests down.
+ */
+public class RequestShapeRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestShapeRecorder.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<RequestShape> queue;
+    private final long startNanos = System.nanoTime();
+    private final Thread writer;
+    private final Counter recorded;
+    private final Counter dropped;
+    private volatile boolean closed;
+
+    public RequestShapeRecorder(Path file, int queueCapacity, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) throws IOException {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.recorded = Counter.builder("transactions.capture.requests")
+                .description("Request shapes handed to the capture file")
+                .tag("result", "recorded")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("transactions.capture.requests")
+                .description("Request shapes handed to the capture file")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.writer = new Thread(() -> write(out), "request-capture");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        logger.info("Capturing transaction request shapes to {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Micros since the capture started, the {@link RequestShape#offsetMicros()} of a request arriving now
+     */
+    public long offsetMicros(long nanoTime) {
+        return TimeUnit.NANOSECONDS.toMicros(nanoTime - startNanos);
+    }
+
+    public void record(RequestShape shape) {
+        if (!closed && queue.offer(shape)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void write(BufferedWriter out) {
+        try (out) {
+            while (!closed || !queue.isEmpty()) {
+                RequestShape shape = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (shape == null) {
+                    out.flush();
+                    continue;
+                }
+                out.write(objectMapper.writeValueAsString(shape));
+                out.newLine();
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Request capture to {} stopped: {}", file, e.getMessage());
+            closed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes out the shapes still queued and closes the file
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        logger.info("Request capture to {} closed, {} shapes recorded, {} dropped",
+                file.toAbsolutePath(), (long) recorded.count(), (long) dropped.count());
+    }
+}
@@ -0,0 +1,49 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * renderings of the API for callers that ask for them in the Accept header.
+ * The mappers are built from the same Jackson configuration as the JSON one, so the binary
+ * encodings carry exactly the JSON contract. JSON stays first and remains the default.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC adds its own binary converters when the libraries are present; replace them
+        // with ones that share the application's Jackson settings
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(binaryMapper(new CBORFactory())));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(binaryMapper(new SmileFactory())));
+    }
+
+    private ObjectMapper binaryMapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+        return builder.factory(factory).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.infrastructure.limiter.AdaptiveConcurrencyLimiter;
+import com.nadeemr.ebanking.infrastructure.limiter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive concurrency limit in front of the transaction endpoints ({@code app.limiter.*}),
+ * registered after the security filter chain so the customer is known, and after the request
+ * capture when it is on
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.limiter.initial-limit:20}") int initialLimit,
+            @Value("${app.limiter.min-limit:4}") int minLimit,
+            @Value("${app.limiter.max-limit:200}") int maxLimit,
+            @Value("${app.limiter.customer-share:0.5}") double customerShare,
+            @Value("${app.limiter.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${app.limiter.smoothing:0.2}") double smoothing) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, customerShare,
+                rttTolerance, smoothing, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                                 ObjectMapper objectMapper) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, objectMapper));
+        registration.addUrlPatterns("/api/v1/transactions", "/api/v1/transactions/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+}
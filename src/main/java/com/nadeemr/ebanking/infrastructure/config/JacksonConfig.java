@@ -0,0 +1,18 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.nadeemr.ebanking.api.dto.SparseFieldsetModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson modules of the API, registered with the application's mapper and, through its
+ * builder, the binary ones
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public SparseFieldsetModule sparseFieldsetModule() {
+        return new SparseFieldsetModule();
+    }
+}
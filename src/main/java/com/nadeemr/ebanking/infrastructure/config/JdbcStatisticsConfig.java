@@ -0,0 +1,92 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.nadeemr.ebanking.infrastructure.jdbc.HibernateStatisticsMetrics;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatistics;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatisticsDataSource;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatisticsEndpoint;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatisticsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * JDBC statement statistics ({@code app.db-stats.*}): the data source is wrapped to time every
+ * statement, API requests count their statements, sub-queries on the task executor count for the
+ * request that started them, and the totals are served at {@code /actuator/dbstats} next to
+ * Hibernate's own statistics. A diagnostic for development and tests, off unless enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db-stats.enabled", havingValue = "true")
+public class JdbcStatisticsConfig {
+
+    @Bean
+    public JdbcStatistics jdbcStatistics(
+            MeterRegistry meterRegistry,
+            @Value("${app.db-stats.slowest-size:20}") int slowestSize,
+            @Value("${app.db-stats.slow-statement-threshold:100ms}") Duration slowStatementThreshold,
+            @Value("${app.db-stats.repeated-statement-threshold:5}") int repeatedStatementThreshold) {
+        return new JdbcStatistics(slowestSize, slowStatementThreshold, repeatedStatementThreshold, meterRegistry);
+    }
+
+    /**
+     * Static so the data source can be wrapped before anything else picks it up
+     */
+    @Bean
+    public static BeanPostProcessor jdbcStatisticsDataSourceWrapper(ObjectProvider<JdbcStatistics> statistics) {
+        Supplier<JdbcStatistics> lazyStatistics = SingletonSupplier.of(statistics::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof JdbcStatisticsDataSource)
+                        ? new JdbcStatisticsDataSource(dataSource, lazyStatistics)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public TaskDecorator jdbcStatisticsTaskDecorator(JdbcStatistics statistics) {
+        return statistics::propagateRequest;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<JdbcStatisticsFilter> jdbcStatisticsFilter(JdbcStatistics statistics) {
+        FilterRegistrationBean<JdbcStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new JdbcStatisticsFilter(statistics));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public Statistics hibernateStatistics(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Bean
+    public HibernateStatisticsMetrics hibernateStatisticsMetrics(Statistics hibernateStatistics) {
+        return new HibernateStatisticsMetrics(hibernateStatistics);
+    }
+
+    @Bean
+    public JdbcStatisticsEndpoint jdbcStatisticsEndpoint(JdbcStatistics statistics, Statistics hibernateStatistics) {
+        return new JdbcStatisticsEndpoint(statistics, hibernateStatistics);
+    }
+}
@@ -1,7 +1,9 @@
 package com.nadeemr.ebanking.infrastructure.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,13 +11,17 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Kafka configuration for consuming transaction events
+ * Kafka configuration for consuming transaction and exchange rate events, and relaying
+ * feed notifications between instances
  */
 @Configuration
 @EnableKafka
@@ -54,4 +60,56 @@ public class KafkaConfig {
         
         return factory;
     }
+    
+    /**
+     * Rate consumers are assigned their partitions directly and join no group, so nothing is
+     * left on the broker when a pod goes away; without a group there is nowhere to commit to,
+     * and the records are never acknowledged.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> exchangeRateListenerContainerFactory() {
+        return ungroupedListenerContainerFactory("earliest");
+    }
+    
+    /**
+     * Feed relay consumers are ungrouped like the rate consumers, so every instance reads every
+     * change, but start from the end of the topic: changes made before the pod started are of
+     * no use to its subscribers, who resync on connecting to a new instance.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> transactionFeedListenerContainerFactory() {
+        return ungroupedListenerContainerFactory("latest");
+    }
+    
+    @Bean
+    public ProducerFactory<String, String> producerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        // Only feed notifications are produced; don't hold up the sending thread when the broker is away
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
+        
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+    
+    @Bean
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+    
+    private ConcurrentKafkaListenerContainerFactory<String, String> ungroupedListenerContainerFactory(String offsetReset) {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, offsetReset);
+        
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = 
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(1); // Small records that must be applied in order
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        
+        return factory;
+    }
 }
@@ -0,0 +1,21 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reactive deployment mode ({@code spring.profiles.active=reactive}). Tomcat stays on the
+ * classpath for the servlet mode and would be picked by default, so Netty is selected here
+ * to get an event loop server rather than Tomcat behind a servlet adapter.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
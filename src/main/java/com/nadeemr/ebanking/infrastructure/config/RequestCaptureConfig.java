@@ -0,0 +1,49 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.infrastructure.capture.RequestCaptureFilter;
+import com.nadeemr.ebanking.infrastructure.capture.RequestShapeRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Capture of anonymized transaction request shapes to a local file ({@code app.capture.*}), to
+ * replay the read workload of an instance elsewhere. Off unless {@code app.capture.enabled} is
+ * set. Registered right after the security filter chain, ahead of the concurrency limit, so shed
+ * requests are captured with their status too.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.capture.enabled", havingValue = "true")
+public class RequestCaptureConfig {
+
+    @Bean
+    public RequestShapeRecorder requestShapeRecorder(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.capture.file:request-shapes.jsonl}") String file,
+            @Value("${app.capture.queue-capacity:10000}") int queueCapacity) throws IOException {
+        return new RequestShapeRecorder(Path.of(file), queueCapacity, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestCaptureFilter> requestCaptureFilter(
+            RequestShapeRecorder recorder,
+            ObjectMapper objectMapper,
+            @Value("${app.capture.customer-buckets:1000}") int customerBuckets) {
+        FilterRegistrationBean<RequestCaptureFilter> registration =
+                new FilterRegistrationBean<>(new RequestCaptureFilter(recorder, objectMapper, customerBuckets));
+        registration.addUrlPatterns("/api/v1/transactions", "/api/v1/transactions/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
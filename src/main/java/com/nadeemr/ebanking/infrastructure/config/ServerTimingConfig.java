@@ -0,0 +1,35 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatistics;
+import com.nadeemr.ebanking.infrastructure.timing.ServerTimingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in {@code Server-Timing} header on the transaction endpoints ({@code app.server-timing.*}),
+ * registered after the concurrency limit so the request is known to be admitted, and inside the
+ * statement statistics so the request's statements are still open when the header is written
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            ObjectProvider<JdbcStatistics> jdbcStatistics,
+            @Value("${app.server-timing.request-header:X-Server-Timing}") String requestHeader,
+            @Value("${app.server-timing.admin-role:ADMIN}") String adminRole) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(requestHeader, adminRole, jdbcStatistics.getIfAvailable()));
+        registration.addUrlPatterns("/api/v1/transactions", "/api/v1/transactions/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 3);
+        return registration;
+    }
+}
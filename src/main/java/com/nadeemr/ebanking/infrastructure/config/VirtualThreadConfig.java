@@ -0,0 +1,66 @@
+package com.nadeemr.ebanking.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in execution mode ({@code app.threads.virtual.enabled=true}) running Tomcat request
+ * handling, {@code @Async} methods and batched sub-queries on virtual threads instead of the
+ * fixed pools, so requests waiting on the exchange rate upstream no longer exhaust the
+ * request threads. Needs a Java 21 runtime; the application refuses to start otherwise.
+ * With the pools gone, the database connection pool is what bounds concurrent queries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = virtualThreadExecutor("http-vt-");
+        logger.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Replaces the auto-configured pooled task executor under both of its names, keeping its task decorator
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadExecutor("query-vt-"));
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+
+    /**
+     * Executor starting a named virtual thread per task. Looked up reflectively so that the
+     * same build still runs on Java 17 when the mode is off.
+     *
+     * @throws IllegalStateException when the runtime has no virtual threads
+     */
+    static ExecutorService virtualThreadExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on " + Runtime.version(), e);
+        }
+    }
+}
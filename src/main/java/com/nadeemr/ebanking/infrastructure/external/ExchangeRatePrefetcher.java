@@ -0,0 +1,130 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the full exchange rate set into {@link ExchangeRateStore} ahead of the request path:
+ * once at startup, and shortly before day rollover for the following value date.
+ * When rates are pushed over Kafka, polling only happens if today's rates never arrived.
+ */
+@Component
+public class ExchangeRatePrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRatePrefetcher.class);
+
+    private final ExchangeRateProvider upstream;
+    private final ExchangeRateStore store;
+    private final boolean enabled;
+    private final boolean pushEnabled;
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+
+    public ExchangeRatePrefetcher(@Qualifier("mockExchangeRateProvider") ExchangeRateProvider upstream,
+                                  ExchangeRateStore store,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.fx.prefetch.enabled:true}") boolean enabled,
+                                  @Value("${app.fx.push.enabled:false}") boolean pushEnabled) {
+        this.upstream = upstream;
+        this.store = store;
+        this.enabled = enabled;
+        this.pushEnabled = pushEnabled;
+        this.refreshTimer = Timer.builder("fx.prefetch.duration")
+                .description("Time taken to load a full exchange rate snapshot")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("fx.prefetch.failures")
+                .description("Exchange rate snapshot loads that failed")
+                .register(meterRegistry);
+        Gauge.builder("fx.rates.age.seconds", this, ExchangeRatePrefetcher::currentRatesAgeSeconds)
+                .description("Age of the exchange rates served for today, NaN when none are loaded")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            logger.info("Exchange rate prefetch is disabled");
+            return;
+        }
+        if (pushEnabled) {
+            logger.info("Exchange rates are pushed over Kafka, skipping startup prefetch");
+            return;
+        }
+        refresh(LocalDate.now());
+    }
+
+    /**
+     * Load tomorrow's rates before midnight so the first request of the day is served from memory
+     */
+    @Scheduled(cron = "${app.fx.prefetch.cron:0 50 23 * * *}")
+    public void prefetchNextDay() {
+        LocalDate today = LocalDate.now();
+        store.evictBefore(today);
+        if (enabled && !pushEnabled) {
+            refresh(today.plusDays(1));
+        }
+    }
+
+    /**
+     * Retry the current day if the startup or rollover load did not succeed
+     */
+    @Scheduled(fixedDelayString = "${app.fx.prefetch.retry-interval-ms:60000}",
+               initialDelayString = "${app.fx.prefetch.retry-interval-ms:60000}")
+    public void ensureCurrentDayLoaded() {
+        LocalDate today = LocalDate.now();
+        if (enabled && !store.isLoaded(today)) {
+            logger.warn("Exchange rates for {} are not loaded, retrying prefetch", today);
+            refresh(today);
+        }
+    }
+
+    /**
+     * Load every supported currency pair for the given date and publish it as one snapshot
+     *
+     * @return true if the snapshot was published
+     */
+    public boolean refresh(LocalDate date) {
+        Timer.Sample sample = Timer.start();
+        try {
+            List<CurrencyUnit> currencies = new ArrayList<>(upstream.getSupportedCurrencies());
+            List<ExchangeRate> rates = new ArrayList<>();
+            for (CurrencyUnit baseCurrency : currencies) {
+                rates.addAll(upstream.getExchangeRates(currencies, baseCurrency, date));
+            }
+
+            store.put(new ExchangeRateSnapshot(date, rates, Instant.now()));
+            logger.info("Prefetched {} exchange rates for {}", rates.size(), date);
+            return true;
+        } catch (Exception e) {
+            refreshFailures.increment();
+            logger.error("Failed to prefetch exchange rates for {}: {}", date, e.getMessage(), e);
+            return false;
+        } finally {
+            sample.stop(refreshTimer);
+        }
+    }
+
+    private double currentRatesAgeSeconds() {
+        return store.get(LocalDate.now())
+                .map(snapshot -> (double) Duration.between(snapshot.getLoadedAt(), Instant.now()).toSeconds())
+                .orElse(Double.NaN);
+    }
+}
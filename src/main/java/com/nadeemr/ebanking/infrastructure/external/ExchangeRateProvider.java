@@ -1,10 +1,12 @@
 package com.nadeemr.ebanking.infrastructure.external;
 
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 import com.nadeemr.ebanking.domain.model.ExchangeRate;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface for external exchange rate provider
@@ -14,15 +16,20 @@ public interface ExchangeRateProvider {
     /**
      * Get exchange rate for a specific date and currency pair
      */
-    Optional<ExchangeRate> getExchangeRate(String fromCurrency, String toCurrency, LocalDate date);
+    Optional<ExchangeRate> getExchangeRate(CurrencyUnit fromCurrency, CurrencyUnit toCurrency, LocalDate date);
     
     /**
      * Get multiple exchange rates for a list of currencies to a base currency
      */
-    List<ExchangeRate> getExchangeRates(List<String> fromCurrencies, String toCurrency, LocalDate date);
+    List<ExchangeRate> getExchangeRates(List<CurrencyUnit> fromCurrencies, CurrencyUnit toCurrency, LocalDate date);
     
     /**
      * Check if the provider supports a specific currency
      */
-    boolean supportsCurrency(String currency);
+    boolean supportsCurrency(CurrencyUnit currency);
+    
+    /**
+     * Get all currencies the provider can quote
+     */
+    Set<CurrencyUnit> getSupportedCurrencies();
 }
@@ -0,0 +1,99 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable set of exchange rates loaded for a single value date.
+ * Quotes are indexed by target currency and then by source currency ordinal.
+ */
+public final class ExchangeRateSnapshot {
+
+    private final LocalDate date;
+    private final Map<CurrencyUnit, ExchangeRate[]> ratesByTarget;
+    private final List<ExchangeRate> rates;
+    private final Instant loadedAt;
+    private final String fingerprint;
+
+    public ExchangeRateSnapshot(LocalDate date, Collection<ExchangeRate> rates, Instant loadedAt) {
+        Map<CurrencyUnit, ExchangeRate[]> byTarget = new HashMap<>();
+        for (ExchangeRate rate : rates) {
+            byTarget.computeIfAbsent(rate.getToCurrency(), currency -> new ExchangeRate[CurrencyRegistry.size()])
+                    [rate.getFromCurrency().getOrdinal()] = rate;
+        }
+
+        List<ExchangeRate> distinct = new ArrayList<>(rates.size());
+        long hash = date.toEpochDay();
+        for (ExchangeRate[] quotes : byTarget.values()) {
+            for (ExchangeRate quote : quotes) {
+                if (quote != null) {
+                    distinct.add(quote);
+                    // Order-independent so that instances holding the same quotes agree
+                    hash += (quote.getFromCurrency().getCode() + quote.getToCurrency().getCode()).hashCode() * 0x9E3779B97F4A7C15L
+                            ^ quote.getRate().stripTrailingZeros().hashCode();
+                }
+            }
+        }
+
+        this.date = date;
+        this.ratesByTarget = byTarget;
+        this.rates = Collections.unmodifiableList(distinct);
+        this.loadedAt = loadedAt;
+        this.fingerprint = Long.toHexString(hash);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Stable digest of the quotes held, identical on every instance that loaded the same rates
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return rates.size();
+    }
+
+    public Collection<ExchangeRate> getRates() {
+        return rates;
+    }
+
+    /**
+     * Create a new snapshot with the given rates replacing any existing quote for the same pair
+     */
+    public ExchangeRateSnapshot withRates(Collection<ExchangeRate> updates, Instant updatedAt) {
+        List<ExchangeRate> merged = new ArrayList<>(rates);
+        merged.addAll(updates); // later quotes win when indexed
+        return new ExchangeRateSnapshot(date, merged, updatedAt);
+    }
+
+    public Optional<ExchangeRate> find(CurrencyUnit fromCurrency, CurrencyUnit toCurrency) {
+        return Optional.ofNullable(get(fromCurrency, toCurrency));
+    }
+
+    /**
+     * Look up a quote without allocating, returning null when the pair is not loaded
+     */
+    public ExchangeRate get(CurrencyUnit fromCurrency, CurrencyUnit toCurrency) {
+        ExchangeRate[] quotes = ratesByTarget.get(toCurrency);
+        return quotes != null ? quotes[fromCurrency.getOrdinal()] : null;
+    }
+}
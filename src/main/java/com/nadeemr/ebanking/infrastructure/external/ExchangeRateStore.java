@@ -0,0 +1,50 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory holder of the exchange rate snapshots served on the request path.
+ * Snapshots are replaced as a whole, so readers never observe a partially loaded date.
+ */
+@Component
+public class ExchangeRateStore {
+
+    private final Map<LocalDate, ExchangeRateSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public Optional<ExchangeRateSnapshot> get(LocalDate date) {
+        return Optional.ofNullable(snapshots.get(date));
+    }
+
+    public boolean isLoaded(LocalDate date) {
+        return snapshots.containsKey(date);
+    }
+
+    public void put(ExchangeRateSnapshot snapshot) {
+        snapshots.put(snapshot.getDate(), snapshot);
+    }
+
+    /**
+     * Merge pushed rates into the snapshot for their date in a single atomic swap
+     */
+    public void apply(LocalDate date, Collection<ExchangeRate> rates) {
+        Instant now = Instant.now();
+        snapshots.compute(date, (snapshotDate, existing) -> existing == null
+                ? new ExchangeRateSnapshot(snapshotDate, rates, now)
+                : existing.withRates(rates, now));
+    }
+
+    /**
+     * Drop snapshots for dates that can no longer be requested
+     */
+    public void evictBefore(LocalDate date) {
+        snapshots.keySet().removeIf(snapshotDate -> snapshotDate.isBefore(date));
+    }
+}
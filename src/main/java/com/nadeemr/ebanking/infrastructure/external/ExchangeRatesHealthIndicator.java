@@ -0,0 +1,37 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Reports the instance ready only once today's exchange rates are held in memory
+ */
+@Component("exchangeRates")
+public class ExchangeRatesHealthIndicator implements HealthIndicator {
+
+    private final ExchangeRateStore store;
+
+    public ExchangeRatesHealthIndicator(ExchangeRateStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Health health() {
+        LocalDate today = LocalDate.now();
+        return store.get(today)
+                .map(snapshot -> Health.up()
+                        .withDetail("date", snapshot.getDate().toString())
+                        .withDetail("rates", snapshot.size())
+                        .withDetail("ageSeconds", Duration.between(snapshot.getLoadedAt(), Instant.now()).toSeconds())
+                        .build())
+                .orElseGet(() -> Health.outOfService()
+                        .withDetail("date", today.toString())
+                        .withDetail("reason", "Exchange rates not loaded yet")
+                        .build());
+    }
+}
@@ -1,8 +1,10 @@
 package com.nadeemr.ebanking.infrastructure.external;
 
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 import com.nadeemr.ebanking.domain.model.ExchangeRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -27,7 +29,9 @@ public class MockExchangeRateProvider implements ExchangeRateProvider {
     private static final Logger logger = LoggerFactory.getLogger(MockExchangeRateProvider.class);
     
     private final RestTemplate restTemplate;
-    private final Set<String> supportedCurrencies = Set.of("EUR", "USD", "GBP", "CHF", "JPY");
+    private final long latencyMs;
+    private final Set<CurrencyUnit> supportedCurrencies = Set.of(
+        CurrencyUnit.of("EUR"), CurrencyUnit.of("USD"), CurrencyUnit.of("GBP"), CurrencyUnit.of("CHF"), CurrencyUnit.of("JPY"));
     
     // Mock exchange rates (in a real implementation, these would come from external API)
     private final Map<String, BigDecimal> mockRates = Map.of(
@@ -41,17 +45,19 @@ public class MockExchangeRateProvider implements ExchangeRateProvider {
         "JPY_EUR", new BigDecimal("0.00687")
     );
     
-    public MockExchangeRateProvider(RestTemplate restTemplate) {
+    public MockExchangeRateProvider(RestTemplate restTemplate,
+                                    @Value("${app.fx.mock.latency-ms:0}") long latencyMs) {
         this.restTemplate = restTemplate;
+        this.latencyMs = latencyMs;
     }
     
     @Override
     @Cacheable(value = "exchangeRates", key = "#fromCurrency + '_' + #toCurrency + '_' + #date")
-    public Optional<ExchangeRate> getExchangeRate(String fromCurrency, String toCurrency, LocalDate date) {
+    public Optional<ExchangeRate> getExchangeRate(CurrencyUnit fromCurrency, CurrencyUnit toCurrency, LocalDate date) {
         logger.debug("Fetching exchange rate from {} to {} for date {}", fromCurrency, toCurrency, date);
         
         // Return 1.0 for same currency
-        if (fromCurrency.equals(toCurrency)) {
+        if (fromCurrency == toCurrency) {
             return Optional.of(new ExchangeRate(fromCurrency, toCurrency, BigDecimal.ONE, date));
         }
         
@@ -81,9 +87,12 @@ public class MockExchangeRateProvider implements ExchangeRateProvider {
     }
     
     @Override
-    public List<ExchangeRate> getExchangeRates(List<String> fromCurrencies, String toCurrency, LocalDate date) {
+    public List<ExchangeRate> getExchangeRates(List<CurrencyUnit> fromCurrencies, CurrencyUnit toCurrency, LocalDate date) {
         logger.debug("Fetching exchange rates for currencies {} to {} for date {}", fromCurrencies, toCurrency, date);
         
+        // One upstream round trip for the whole batch
+        simulateLatency();
+        
         return fromCurrencies.stream()
                 .map(fromCurrency -> getExchangeRate(fromCurrency, toCurrency, date))
                 .filter(Optional::isPresent)
@@ -92,21 +101,41 @@ public class MockExchangeRateProvider implements ExchangeRateProvider {
     }
     
     @Override
-    public boolean supportsCurrency(String currency) {
+    public boolean supportsCurrency(CurrencyUnit currency) {
         return supportedCurrencies.contains(currency);
     }
     
+    @Override
+    public Set<CurrencyUnit> getSupportedCurrencies() {
+        return supportedCurrencies;
+    }
+    
+    /**
+     * Simulate the upstream's response time, for load testing against a slow provider
+     */
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for exchange rates", e);
+        }
+    }
+    
     /**
      * Mock method to simulate external API call
      * In a real implementation, this would be replaced with actual API integration
      */
-    private BigDecimal getMockExchangeRate(String fromCurrency, String toCurrency) {
-        String key = fromCurrency + "_" + toCurrency;
+    private BigDecimal getMockExchangeRate(CurrencyUnit fromCurrency, CurrencyUnit toCurrency) {
+        String key = fromCurrency.getCode() + "_" + toCurrency.getCode();
         BigDecimal rate = mockRates.get(key);
         
         if (rate == null) {
             // Try reverse rate
-            String reverseKey = toCurrency + "_" + fromCurrency;
+            String reverseKey = toCurrency.getCode() + "_" + fromCurrency.getCode();
             BigDecimal reverseRate = mockRates.get(reverseKey);
             if (reverseRate != null) {
                 rate = BigDecimal.ONE.divide(reverseRate, 6, BigDecimal.ROUND_HALF_UP);
@@ -119,7 +148,7 @@ public class MockExchangeRateProvider implements ExchangeRateProvider {
     /**
      * Method for real external API integration (commented for mock implementation)
      */
-    private ExchangeRate callExternalAPI(String fromCurrency, String toCurrency, LocalDate date) {
+    private ExchangeRate callExternalAPI(CurrencyUnit fromCurrency, CurrencyUnit toCurrency, LocalDate date) {
         try {
             String url = String.format("https://api.exchangerate.com/v1/%s?from=%s&to=%s&date=%s",
                     "latest", fromCurrency, toCurrency, date.format(DateTimeFormatter.ISO_LOCAL_DATE));
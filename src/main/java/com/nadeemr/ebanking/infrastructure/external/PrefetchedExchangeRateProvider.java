@@ -0,0 +1,89 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Exchange rate provider serving the rates loaded by {@link ExchangeRatePrefetcher}.
+ * Falls back to the upstream provider only when the requested date has not been loaded.
+ */
+@Service
+@Primary
+public class PrefetchedExchangeRateProvider implements ExchangeRateProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchedExchangeRateProvider.class);
+
+    private final ExchangeRateProvider upstream;
+    private final ExchangeRateStore store;
+    private final Counter misses;
+
+    public PrefetchedExchangeRateProvider(@Qualifier("mockExchangeRateProvider") ExchangeRateProvider upstream,
+                                          ExchangeRateStore store,
+                                          MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.store = store;
+        this.misses = Counter.builder("fx.store.misses")
+                .description("Exchange rate lookups that had to call the upstream provider")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<ExchangeRate> getExchangeRate(CurrencyUnit fromCurrency, CurrencyUnit toCurrency, LocalDate date) {
+        if (fromCurrency == toCurrency) {
+            return Optional.of(new ExchangeRate(fromCurrency, toCurrency, BigDecimal.ONE, date));
+        }
+
+        Optional<ExchangeRateSnapshot> snapshot = store.get(date);
+        if (snapshot.isPresent()) {
+            return snapshot.get().find(fromCurrency, toCurrency);
+        }
+
+        misses.increment();
+        logger.debug("No prefetched rates for {}, calling upstream provider", date);
+        return upstream.getExchangeRate(fromCurrency, toCurrency, date);
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRates(List<CurrencyUnit> fromCurrencies, CurrencyUnit toCurrency, LocalDate date) {
+        Optional<ExchangeRateSnapshot> snapshot = store.get(date);
+        if (snapshot.isEmpty()) {
+            misses.increment();
+            logger.debug("No prefetched rates for {}, calling upstream provider", date);
+            return upstream.getExchangeRates(fromCurrencies, toCurrency, date);
+        }
+
+        List<ExchangeRate> rates = new ArrayList<>(fromCurrencies.size());
+        for (CurrencyUnit fromCurrency : fromCurrencies) {
+            if (fromCurrency == toCurrency) {
+                rates.add(new ExchangeRate(fromCurrency, toCurrency, BigDecimal.ONE, date));
+            } else {
+                snapshot.get().find(fromCurrency, toCurrency).ifPresent(rates::add);
+            }
+        }
+        return rates;
+    }
+
+    @Override
+    public boolean supportsCurrency(CurrencyUnit currency) {
+        return upstream.supportsCurrency(currency);
+    }
+
+    @Override
+    public Set<CurrencyUnit> getSupportedCurrencies() {
+        return upstream.getSupportedCurrencies();
+    }
+}
@@ -0,0 +1,52 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hibernate's statistics as meters, under the names the Micrometer Hibernate binder uses.
+ * Entity and collection fetches are the lazy loads that give an N+1 away; they stay at zero
+ * while every association is read by the queries themselves.
+ */
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.query.executions", "Queries executed", Statistics::getQueryExecutionCount);
+        counter(registry, "hibernate.statements", "Statements prepared", Statistics::getPrepareStatementCount,
+                "status", "prepared");
+        counter(registry, "hibernate.statements", "Statements closed", Statistics::getCloseStatementCount,
+                "status", "closed");
+        counter(registry, "hibernate.entities.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.collections.fetches", "Collections fetched lazily",
+                Statistics::getCollectionFetchCount);
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.connections.obtained", "Connections obtained by sessions",
+                Statistics::getConnectCount);
+        counter(registry, "hibernate.transactions", "Transactions completed", Statistics::getTransactionCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query since the statistics were last cleared")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> count, String... tags) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,365 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import com.nadeemr.ebanking.infrastructure.jdbc.RequestStatements.ExecutedStatement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Collects the JDBC statements run through {@link JdbcStatisticsDataSource}: per statement
+ * timings and rows as {@code jdbc.statements} meters, aggregates per distinct SQL, the slowest
+ * statements with the shape of their bind parameters, and connection acquisition time. Statements
+ * run while a request is open ({@link #beginRequest}) are also counted for that request, as
+ * {@code jdbc.request.*} meters; a request running the same statement
+ * {@code repeatedStatementThreshold} times or more is counted and logged as a likely N+1.
+ */
+public class JdbcStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcStatistics.class);
+
+    /**
+     * Distinct statements aggregated before the rest are pooled, Hibernate SQL is parameterised
+     * so this is only reached by generated SQL with inlined values
+     */
+    private static final int MAX_DISTINCT_STATEMENTS = 500;
+    private static final String OTHER_STATEMENTS = "(other statements)";
+    private static final long SLOW_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String[] OPERATIONS = {"select", "insert", "update", "delete", "other"};
+
+    /**
+     * A statement among the slowest seen
+     */
+    public record SlowStatement(String sql, String bindShape, double millis, long rows, Instant at) {
+    }
+
+    /**
+     * Totals of one distinct statement
+     */
+    public record StatementSummary(String sql, long executions, double totalMillis, double meanMillis,
+                                   double maxMillis, long rows) {
+    }
+
+    private static final class Aggregate {
+        final LongAdder executions = new LongAdder();
+        final LongAdder micros = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final AtomicLong maxMicros = new AtomicLong();
+
+        void add(ExecutedStatement statement) {
+            executions.increment();
+            micros.add(statement.durationMicros());
+            rows.add(statement.rows());
+            maxMicros.accumulateAndGet(statement.durationMicros(), Math::max);
+        }
+    }
+
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+    private final ConcurrentMap<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final List<Consumer<RequestStatements>> requestListeners = new CopyOnWriteArrayList<>();
+    private final Set<String> reportedRepeats = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextSlowLog = new AtomicLong(Long.MIN_VALUE);
+
+    // Guarded by itself, the fastest of the kept statements first
+    private final PriorityQueue<SlowStatement> slowest = new PriorityQueue<>(Comparator.comparingDouble(SlowStatement::millis));
+    private volatile double slowestFloorMillis;
+
+    private final int slowestSize;
+    private final long slowStatementMicros;
+    private final int repeatedStatementThreshold;
+
+    private final Timer[] statementTimers = new Timer[OPERATIONS.length];
+    private final DistributionSummary selectRows;
+    private final Counter slowStatements;
+    private final Timer connectionAcquire;
+    private final DistributionSummary requestStatements;
+    private final DistributionSummary requestRows;
+    private final Timer requestStatementTime;
+    private final Counter repeatedStatementRequests;
+
+    public JdbcStatistics(int slowestSize, Duration slowStatementThreshold, int repeatedStatementThreshold,
+                          MeterRegistry meterRegistry) {
+        this.slowestSize = slowestSize;
+        this.slowStatementMicros = TimeUnit.NANOSECONDS.toMicros(slowStatementThreshold.toNanos());
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            statementTimers[i] = Timer.builder("jdbc.statements")
+                    .description("Time spent executing JDBC statements, without reading their results")
+                    .tag("operation", OPERATIONS[i])
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+        this.selectRows = DistributionSummary.builder("jdbc.statements.rows")
+                .description("Rows read from the result of a select")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.slowStatements = Counter.builder("jdbc.statements.slow")
+                .description("Statements slower than the slow statement threshold")
+                .register(meterRegistry);
+        this.connectionAcquire = Timer.builder("jdbc.connection.acquire")
+                .description("Time to get a connection from the data source")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        this.requestStatements = DistributionSummary.builder("jdbc.request.statements")
+                .description("Statements run by one request")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000.0)
+                .register(meterRegistry);
+        this.requestRows = DistributionSummary.builder("jdbc.request.rows")
+                .description("Rows read or changed by the statements of one request")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.requestStatementTime = Timer.builder("jdbc.request.statements.duration")
+                .description("Time one request spent executing statements")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        this.repeatedStatementRequests = Counter.builder("jdbc.request.repeated")
+                .description("Requests running one statement repeatedly, likely an N+1 query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Attribute the statements run on this thread to a new request until {@link #endRequest}
+     */
+    public RequestStatements beginRequest(String name) {
+        RequestStatements request = new RequestStatements(name);
+        currentRequest.set(request);
+        return request;
+    }
+
+    /**
+     * Stop attributing statements to the request and record its totals
+     */
+    public void endRequest(RequestStatements request) {
+        currentRequest.remove();
+        requestStatements.record(request.statementCount());
+        requestRows.record(request.rows());
+        requestStatementTime.record(request.statementMicros(), TimeUnit.MICROSECONDS);
+
+        boolean repeated = false;
+        for (Map.Entry<String, Integer> executions : request.executionsBySql().entrySet()) {
+            if (executions.getValue() >= repeatedStatementThreshold) {
+                repeated = true;
+                if (reportedRepeats.size() < MAX_DISTINCT_STATEMENTS && reportedRepeats.add(executions.getKey())) {
+                    logger.warn("{} ran the same statement {} times, likely an N+1 query: {}",
+                            request.name(), executions.getValue(), executions.getKey());
+                }
+            }
+        }
+        if (repeated) {
+            repeatedStatementRequests.increment();
+        }
+        requestListeners.forEach(listener -> listener.accept(request));
+    }
+
+    /**
+     * The request the statements of this thread are attributed to, if any
+     */
+    public Optional<RequestStatements> currentRequest() {
+        return Optional.ofNullable(currentRequest.get());
+    }
+
+    /**
+     * Wrap a task handed to another thread so its statements count for the submitting request
+     */
+    public Runnable propagateRequest(Runnable task) {
+        RequestStatements request = currentRequest.get();
+        if (request == null) {
+            return task;
+        }
+        return () -> {
+            RequestStatements previous = currentRequest.get();
+            currentRequest.set(request);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    currentRequest.set(previous);
+                } else {
+                    currentRequest.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Called with every request once it ended, on the thread of the request
+     *
+     * @return closing it removes the listener
+     */
+    public AutoCloseable onRequestEnd(Consumer<RequestStatements> listener) {
+        requestListeners.add(listener);
+        return () -> requestListeners.remove(listener);
+    }
+
+    void connectionAcquired(long nanos) {
+        connectionAcquire.record(nanos, TimeUnit.NANOSECONDS);
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.connectionAcquired(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    void executed(ExecutedStatement statement) {
+        int operation = operation(statement.sql());
+        statementTimers[operation].record(statement.durationMicros(), TimeUnit.MICROSECONDS);
+        if (operation == 0) {
+            selectRows.record(statement.rows());
+        }
+
+        Aggregate aggregate = aggregates.get(statement.sql());
+        if (aggregate == null) {
+            String key = aggregates.size() < MAX_DISTINCT_STATEMENTS ? statement.sql() : OTHER_STATEMENTS;
+            aggregate = aggregates.computeIfAbsent(key, sql -> new Aggregate());
+        }
+        aggregate.add(statement);
+
+        double millis = statement.durationMicros() / 1000.0;
+        if (millis > slowestFloorMillis || slowest.size() < slowestSize) {
+            keepSlowest(new SlowStatement(statement.sql(), statement.bindShape(), millis, statement.rows(), Instant.now()));
+        }
+        if (statement.durationMicros() >= slowStatementMicros) {
+            slowStatements.increment();
+            long now = System.nanoTime();
+            long next = nextSlowLog.get();
+            if ((next == Long.MIN_VALUE || now - next >= 0) && nextSlowLog.compareAndSet(next, now + SLOW_LOG_INTERVAL_NANOS)) {
+                logger.warn("Slow statement took {} ms for {} rows: {} {}", String.format("%.1f", millis),
+                        statement.rows(), statement.sql(), statement.bindShape());
+            }
+        }
+
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.add(statement);
+        }
+    }
+
+    private void keepSlowest(SlowStatement statement) {
+        synchronized (slowest) {
+            slowest.add(statement);
+            if (slowest.size() > slowestSize) {
+                slowest.poll();
+            }
+            slowestFloorMillis = slowest.size() < slowestSize ? 0 : slowest.peek().millis();
+        }
+    }
+
+    /**
+     * The slowest statements since the last reset, slowest first
+     */
+    public List<SlowStatement> slowest() {
+        List<SlowStatement> statements;
+        synchronized (slowest) {
+            statements = new ArrayList<>(slowest);
+        }
+        statements.sort(Comparator.comparingDouble(SlowStatement::millis).reversed());
+        return statements;
+    }
+
+    /**
+     * Distinct statements by the total time spent executing them since the last reset
+     */
+    public List<StatementSummary> topStatements(int limit) {
+        return aggregates.entrySet().stream()
+                .map(entry -> {
+                    Aggregate aggregate = entry.getValue();
+                    long executions = aggregate.executions.sum();
+                    double totalMillis = aggregate.micros.sum() / 1000.0;
+                    return new StatementSummary(entry.getKey(), executions, totalMillis,
+                            executions == 0 ? 0 : totalMillis / executions, aggregate.maxMicros.get() / 1000.0,
+                            aggregate.rows.sum());
+                })
+                .sorted(Comparator.comparingDouble(StatementSummary::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Forget the slowest statements and the per statement totals, the meters are left alone
+     */
+    public void reset() {
+        aggregates.clear();
+        reportedRepeats.clear();
+        synchronized (slowest) {
+            slowest.clear();
+            slowestFloorMillis = 0;
+        }
+    }
+
+    public double connectionAcquireMeanMillis() {
+        return connectionAcquire.mean(TimeUnit.MILLISECONDS);
+    }
+
+    public double connectionAcquireMaxMillis() {
+        return connectionAcquire.max(TimeUnit.MILLISECONDS);
+    }
+
+    public long connectionsAcquired() {
+        return connectionAcquire.count();
+    }
+
+    public double requestStatementsMean() {
+        return requestStatements.mean();
+    }
+
+    public double requestStatementsMax() {
+        return requestStatements.max();
+    }
+
+    public double requestRowsMean() {
+        return requestRows.mean();
+    }
+
+    public double requestRowsMax() {
+        return requestRows.max();
+    }
+
+    public long requests() {
+        return requestStatements.count();
+    }
+
+    private static int operation(String sql) {
+        int end = 0;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String keyword = sql.substring(0, end).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < OPERATIONS.length - 1; i++) {
+            if (OPERATIONS[i].equals(keyword)) {
+                return i;
+            }
+        }
+        return OPERATIONS.length - 1;
+    }
+}
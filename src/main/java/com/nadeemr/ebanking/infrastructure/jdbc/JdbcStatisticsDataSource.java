@@ -0,0 +1,207 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import com.nadeemr.ebanking.infrastructure.jdbc.RequestStatements.ExecutedStatement;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Data source reporting every statement to {@link JdbcStatistics}: its SQL, the types bound to
+ * its parameters, how long it took to execute and how many rows were read from its result.
+ * Connections, statements and result sets are wrapped in JDK proxies that pass every call
+ * through, so {@code unwrap} still reaches the driver's own objects. A statement is reported
+ * when its result set or the statement itself is closed, whichever comes first.
+ */
+public class JdbcStatisticsDataSource extends DelegatingDataSource {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Supplier<JdbcStatistics> statistics;
+
+    /**
+     * @param statistics looked up on first use, so that wrapping the data source doesn't create
+     *                   the statistics and their meter registry ahead of the other beans
+     */
+    public JdbcStatisticsDataSource(DataSource target, Supplier<JdbcStatistics> statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        statistics.get().connectionAcquired(System.nanoTime() - start);
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        statistics.get().connectionAcquired(System.nanoTime() - start);
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcStatisticsDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String normalize(String sql) {
+        return WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcStatisticsDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? normalize(text) : null;
+                @SuppressWarnings("unchecked")
+                Class<Statement> type = (Class<Statement>) method.getReturnType();
+                return proxy(type, statement, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final List<String> bindTypes = new ArrayList<>();
+
+        // The execution whose rows are still being read
+        private String sql;
+        private String bindShape;
+        private long durationNanos;
+        private long rows;
+        private boolean pending;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name, args[1]);
+            } else if (name.equals("close")) {
+                report();
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if (name.equals("getResultSet")) {
+                Object resultSet = JdbcStatisticsDataSource.invoke(target, method, args);
+                return resultSet instanceof ResultSet rs ? proxy(ResultSet.class, rs, new ResultSetHandler(rs, this)) : resultSet;
+            }
+            return JdbcStatisticsDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            report();
+            sql = args != null && args.length > 0 && args[0] instanceof String text ? normalize(text) : preparedSql;
+            bindShape = "(" + String.join(", ", bindTypes) + ")";
+            long start = System.nanoTime();
+            Object result = JdbcStatisticsDataSource.invoke(target, method, args);
+            durationNanos = System.nanoTime() - start;
+            rows = 0;
+            pending = true;
+
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet, new ResultSetHandler(resultSet, this));
+            }
+            if (result instanceof Number updated) {
+                rows = Math.max(0, updated.longValue());
+            } else if (result instanceof int[] batch) {
+                bindShape = bindShape + " x" + batch.length;
+                for (int count : batch) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[] batch) {
+                bindShape = bindShape + " x" + batch.length;
+                for (long count : batch) {
+                    rows += Math.max(0, count);
+                }
+            }
+            if (!(result instanceof Boolean isResultSet && isResultSet)) {
+                report();
+            }
+            return result;
+        }
+
+        private void bind(int index, String method, Object value) {
+            String type = method.equals("setNull") ? "null"
+                    : method.equals("setObject") ? (value == null ? "null" : value.getClass().getSimpleName())
+                    : method.substring(3);
+            while (bindTypes.size() < index) {
+                bindTypes.add("?");
+            }
+            bindTypes.set(index - 1, type);
+        }
+
+        void rowRead() {
+            rows++;
+        }
+
+        void report() {
+            if (pending) {
+                pending = false;
+                statistics.get().executed(new ExecutedStatement(sql != null ? sql : "(unknown)", bindShape,
+                        TimeUnit.NANOSECONDS.toMicros(durationNanos), rows));
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final StatementHandler statement;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement) {
+            this.target = target;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcStatisticsDataSource.invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                statement.rowRead();
+            } else if (method.getName().equals("close")) {
+                statement.report();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/dbstats}: statements per request, the distinct statements taking the most
+ * time, the slowest single statements with their bind parameter shapes, connection acquisition
+ * and Hibernate's own statistics. The statements' SQL is internal detail, so the endpoint is
+ * only served to admin tokens (see {@code SecurityConfig}).
+ */
+@Endpoint(id = "dbstats")
+public class JdbcStatisticsEndpoint {
+
+    private static final int TOP_STATEMENTS = 20;
+
+    private final JdbcStatistics statistics;
+    private final Statistics hibernateStatistics;
+
+    public JdbcStatisticsEndpoint(JdbcStatistics statistics, Statistics hibernateStatistics) {
+        this.statistics = statistics;
+        this.hibernateStatistics = hibernateStatistics;
+    }
+
+    public record Report(Requests requests, ConnectionAcquisition connectionAcquisition,
+                         List<JdbcStatistics.StatementSummary> topStatements,
+                         List<JdbcStatistics.SlowStatement> slowestStatements, Hibernate hibernate) {
+    }
+
+    public record Requests(long count, double statementsMean, double statementsMax, double rowsMean, double rowsMax) {
+    }
+
+    public record ConnectionAcquisition(long count, double meanMillis, double maxMillis) {
+    }
+
+    public record Hibernate(boolean enabled, long queryExecutions, long queryExecutionMaxMillis,
+                            String slowestQuery, long preparedStatements, long entityLoads, long entityFetches,
+                            long collectionFetches, long transactions, long sessionsOpened) {
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(
+                new Requests(statistics.requests(), statistics.requestStatementsMean(),
+                        statistics.requestStatementsMax(), statistics.requestRowsMean(), statistics.requestRowsMax()),
+                new ConnectionAcquisition(statistics.connectionsAcquired(), statistics.connectionAcquireMeanMillis(),
+                        statistics.connectionAcquireMaxMillis()),
+                statistics.topStatements(TOP_STATEMENTS),
+                statistics.slowest(),
+                new Hibernate(hibernateStatistics.isStatisticsEnabled(),
+                        hibernateStatistics.getQueryExecutionCount(),
+                        hibernateStatistics.getQueryExecutionMaxTime(),
+                        hibernateStatistics.getQueryExecutionMaxTimeQueryString(),
+                        hibernateStatistics.getPrepareStatementCount(),
+                        hibernateStatistics.getEntityLoadCount(),
+                        hibernateStatistics.getEntityFetchCount(),
+                        hibernateStatistics.getCollectionFetchCount(),
+                        hibernateStatistics.getTransactionCount(),
+                        hibernateStatistics.getSessionOpenCount()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Attributes the statements run while handling an API request to that request, so that
+ * {@link JdbcStatistics} records how many statements and rows each request took
+ */
+public class JdbcStatisticsFilter extends OncePerRequestFilter {
+
+    private final JdbcStatistics statistics;
+
+    public JdbcStatisticsFilter(JdbcStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestStatements statements = statistics.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statistics.endRequest(statements);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements one request ran, including those of the sub-queries it handed to the query
+ * executor, so it is safe to update from several threads. Only the first
+ * {@value #MAX_KEPT_STATEMENTS} statements are kept individually; the totals count them all.
+ */
+public final class RequestStatements {
+
+    static final int MAX_KEPT_STATEMENTS = 1_000;
+
+    /**
+     * One executed statement
+     *
+     * @param sql            the statement with {@code ?} placeholders, whitespace collapsed
+     * @param bindShape      types of the bound parameters, never their values, e.g. {@code (String, Date)}
+     * @param durationMicros time spent executing it, without reading the result set
+     * @param rows           rows read from its result set, or rows changed by an update
+     */
+    public record ExecutedStatement(String sql, String bindShape, long durationMicros, long rows) {
+    }
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+
+    // Guarded by this
+    private final List<ExecutedStatement> statements = new ArrayList<>();
+    private int statementCount;
+    private long rows;
+    private long statementMicros;
+    private long connectionAcquireMicros;
+    private int connections;
+
+    RequestStatements(String name) {
+        this.name = name;
+    }
+
+    synchronized void add(ExecutedStatement statement) {
+        statementCount++;
+        rows += statement.rows();
+        statementMicros += statement.durationMicros();
+        if (statements.size() < MAX_KEPT_STATEMENTS) {
+            statements.add(statement);
+        }
+    }
+
+    synchronized void connectionAcquired(long micros) {
+        connections++;
+        connectionAcquireMicros += micros;
+    }
+
+    /**
+     * Method and path of the request, e.g. {@code GET /api/v1/transactions}
+     */
+    public String name() {
+        return name;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    public synchronized int statementCount() {
+        return statementCount;
+    }
+
+    public synchronized long rows() {
+        return rows;
+    }
+
+    public synchronized long statementMicros() {
+        return statementMicros;
+    }
+
+    public synchronized int connections() {
+        return connections;
+    }
+
+    public synchronized long connectionAcquireMicros() {
+        return connectionAcquireMicros;
+    }
+
+    public synchronized List<ExecutedStatement> statements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * How many times each distinct statement ran, in order of first execution
+     */
+    public synchronized Map<String, Integer> executionsBySql() {
+        Map<String, Integer> executions = new LinkedHashMap<>();
+        for (ExecutedStatement statement : statements) {
+            executions.merge(statement.sql(), 1, Integer::sum);
+        }
+        return executions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder description = new StringBuilder(name).append(": ").append(statementCount)
+                .append(statementCount == 1 ? " statement" : " statements")
+                .append(", ").append(rows).append(" rows");
+        for (ExecutedStatement statement : statements) {
+            description.append("\n  ").append(statement.sql()).append(' ').append(statement.bindShape())
+                    .append(" -> ").append(statement.rows()).append(" rows in ")
+                    .append(statement.durationMicros()).append("µs");
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package com.nadeemr.ebanking.infrastructure.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the observed latency, after the gradient algorithm: the limit
+ * is scaled by the ratio of the long-term to the short-term average latency, so it shrinks as
+ * soon as requests slow down (e.g. the database is struggling) and grows back by about
+ * {@code sqrt(limit)} per sample while latency stays at its usual level. Requests over the
+ * limit are rejected immediately rather than queued.
+ * <p>
+ * For fairness a single customer may hold at most {@code customerShare} of the limit, so a
+ * customer sending a burst is turned away before the others are.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Why a request was not admitted
+     */
+    public enum Rejection {
+        /** The instance is at its concurrency limit */
+        OVERLOADED,
+        /** The customer already holds its share of the limit */
+        CUSTOMER_SHARE
+    }
+
+    private static final double SHORT_RTT_WEIGHT = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.002;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double customerShare;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<String, AtomicInteger> inFlightByCustomer = new ConcurrentHashMap<>();
+    private final Counter overloaded;
+    private final Counter overShare;
+
+    // Guarded by this
+    private double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double customerShare,
+                                      double rttTolerance, double smoothing, MeterRegistry meterRegistry) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.customerShare = customerShare;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.overloaded = Counter.builder("transactions.limiter.rejected")
+                .description("Requests rejected because the instance was at its concurrency limit")
+                .tag("reason", "overloaded")
+                .register(meterRegistry);
+        this.overShare = Counter.builder("transactions.limiter.rejected")
+                .description("Requests rejected because the customer held its share of the limit")
+                .tag("reason", "customer_share")
+                .register(meterRegistry);
+        Gauge.builder("transactions.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("transactions.limiter.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a request of the customer
+     *
+     * @return null when admitted, in which case {@link #release} must follow; the reason otherwise
+     */
+    public Rejection tryAcquire(String customerId) {
+        int currentLimit = getLimit();
+        if (inFlight.incrementAndGet() > currentLimit) {
+            inFlight.decrementAndGet();
+            overloaded.increment();
+            return Rejection.OVERLOADED;
+        }
+
+        int customerLimit = Math.max(1, (int) (currentLimit * customerShare));
+        int[] customerInFlight = new int[1];
+        inFlightByCustomer.compute(customerId, (id, count) -> {
+            AtomicInteger held = count != null ? count : new AtomicInteger();
+            customerInFlight[0] = held.incrementAndGet();
+            return held;
+        });
+        if (customerInFlight[0] > customerLimit) {
+            releaseCustomer(customerId);
+            inFlight.decrementAndGet();
+            overShare.increment();
+            return Rejection.CUSTOMER_SHARE;
+        }
+        return null;
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit
+     *
+     * @param latencyNanos the request's latency, or a negative value when it should not count as
+     *                     a sample (e.g. it failed before reaching the database)
+     */
+    public void release(String customerId, long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        releaseCustomer(customerId);
+        if (latencyNanos >= 0) {
+            onSample(latencyNanos, inFlightBefore);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtRelease) {
+        if (longRttNanos == 0) {
+            shortRttNanos = latencyNanos;
+            longRttNanos = latencyNanos;
+            return;
+        }
+        shortRttNanos += (latencyNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+        longRttNanos += (shortRttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+
+        // After a lasting slowdown the long-term average drifts up; let it recover faster once
+        // latency is back to normal so the limit can grow again
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // Far below the limit the latency says nothing about how much more we could take
+        if (inFlightAtRelease < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + newLimit * smoothing));
+    }
+
+    private void releaseCustomer(String customerId) {
+        inFlightByCustomer.computeIfPresent(customerId, (id, count) -> count.decrementAndGet() == 0 ? null : count);
+    }
+}
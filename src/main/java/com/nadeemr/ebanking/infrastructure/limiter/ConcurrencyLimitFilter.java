@@ -0,0 +1,91 @@
+package com.nadeemr.ebanking.infrastructure.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.controller.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds transaction requests the {@link AdaptiveConcurrencyLimiter} doesn't admit, before they
+ * reach the database: 503 when the instance is at its limit, 429 when the customer already
+ * holds its share. Runs after authentication so requests are attributed to the customer.
+ * The live feed is exempt since its requests stay open by design.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String customerId = authentication != null ? authentication.getName() : "anonymous";
+
+        AdaptiveConcurrencyLimiter.Rejection rejection = limiter.tryAcquire(customerId);
+        if (rejection != null) {
+            reject(response, customerId, rejection);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sample = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Client errors are answered before any real work and would drag the average down
+            sample = response.getStatus() < 400 || response.getStatus() >= 500;
+        } finally {
+            limiter.release(customerId, sample ? System.nanoTime() - start : -1);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String customerId,
+                        AdaptiveConcurrencyLimiter.Rejection rejection) throws IOException {
+        GlobalExceptionHandler.ErrorResponse errorResponse;
+        if (rejection == AdaptiveConcurrencyLimiter.Rejection.CUSTOMER_SHARE) {
+            logger.debug("Shedding request of customer {}: over its share of the concurrency limit", customerId);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            errorResponse = new GlobalExceptionHandler.ErrorResponse(
+                    "TOO_MANY_REQUESTS",
+                    "Too many requests",
+                    "Too many of your requests are in progress, please retry later",
+                    LocalDateTime.now());
+        } else {
+            logger.debug("Shedding request of customer {}: concurrency limit {} reached", customerId, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            errorResponse = new GlobalExceptionHandler.ErrorResponse(
+                    "SERVICE_BUSY",
+                    "Service busy",
+                    "Too many requests in progress, please retry later",
+                    LocalDateTime.now());
+        }
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
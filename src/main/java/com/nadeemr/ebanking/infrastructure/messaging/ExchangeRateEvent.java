@@ -0,0 +1,96 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Kafka message carrying every quote into one target currency for a value date.
+ * Published keyed by target currency on a compacted topic, so the latest set per currency is retained.
+ */
+public class ExchangeRateEvent {
+
+    @JsonProperty("toCurrency")
+    private CurrencyUnit toCurrency;
+
+    @JsonProperty("date")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+
+    @JsonProperty("rates")
+    private Map<String, BigDecimal> rates; // fromCurrency -> rate
+
+    @JsonProperty("timestamp")
+    private String timestamp;
+
+    public ExchangeRateEvent() {}
+
+    public ExchangeRateEvent(CurrencyUnit toCurrency, LocalDate date, Map<String, BigDecimal> rates) {
+        this.toCurrency = toCurrency;
+        this.date = date;
+        this.rates = rates;
+    }
+
+    // Getters and Setters
+    public CurrencyUnit getToCurrency() {
+        return toCurrency;
+    }
+
+    public void setToCurrency(CurrencyUnit toCurrency) {
+        this.toCurrency = toCurrency;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExchangeRateEvent that = (ExchangeRateEvent) o;
+        return Objects.equals(toCurrency, that.toCurrency) &&
+                Objects.equals(date, that.date) &&
+                Objects.equals(rates, that.rates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(toCurrency, date, rates);
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeRateEvent{" +
+                "toCurrency=" + toCurrency +
+                ", date=" + date +
+                ", rates=" + rates +
+                ", timestamp='" + timestamp + '\'' +
+                '}';
+    }
+}
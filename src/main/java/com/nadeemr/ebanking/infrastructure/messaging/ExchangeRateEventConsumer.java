@@ -0,0 +1,80 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kafka consumer applying pushed exchange rates to the in-memory rate store.
+ * Every instance assigns itself all partitions of the topic ({@code app.kafka.exchange-rate-partitions})
+ * without joining a consumer group, so each pod receives every update and leaves nothing behind
+ * on the broker, and replays the compacted topic from the beginning on startup.
+ */
+@Service
+public class ExchangeRateEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateEventConsumer.class);
+
+    private final ExchangeRateStore exchangeRateStore;
+    private final ObjectMapper objectMapper;
+    private final Counter updatesApplied;
+    private final Counter updatesRejected;
+
+    public ExchangeRateEventConsumer(ExchangeRateStore exchangeRateStore, ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.exchangeRateStore = exchangeRateStore;
+        this.objectMapper = objectMapper;
+        this.updatesApplied = Counter.builder("fx.push.updates")
+                .description("Exchange rate updates applied from the rate topic")
+                .register(meterRegistry);
+        this.updatesRejected = Counter.builder("fx.push.failures")
+                .description("Exchange rate updates that could not be applied")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(
+                           topic = "${app.kafka.exchange-rate-topic}",
+                           partitions = "${app.kafka.exchange-rate-partitions:0}",
+                           partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+                   containerFactory = "exchangeRateListenerContainerFactory",
+                   autoStartup = "${app.fx.push.enabled:false}")
+    public void consumeExchangeRateEvent(
+            @Payload String payload,
+            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key) {
+
+        try {
+            ExchangeRateEvent event = objectMapper.readValue(payload, ExchangeRateEvent.class);
+            logger.debug("Parsed exchange rate event: {}", event);
+
+            CurrencyUnit toCurrency = event.getToCurrency();
+            List<ExchangeRate> rates = new ArrayList<>(event.getRates().size());
+            event.getRates().forEach((fromCurrency, rate) ->
+                    rates.add(new ExchangeRate(CurrencyRegistry.resolve(fromCurrency), toCurrency, rate, event.getDate())));
+
+            exchangeRateStore.apply(event.getDate(), rates);
+            updatesApplied.increment();
+            logger.info("Applied {} exchange rates into {} for {}", rates.size(), event.getToCurrency(), event.getDate());
+
+        } catch (Exception e) {
+            // Rates are re-published on every change, so a bad record is skipped rather than retried
+            updatesRejected.increment();
+            logger.error("Error applying exchange rate event with key {}: {}", key, e.getMessage(), e);
+        }
+    }
+}
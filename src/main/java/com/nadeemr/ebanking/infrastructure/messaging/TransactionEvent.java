@@ -2,6 +2,7 @@ package com.nadeemr.ebanking.infrastructure.messaging;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -19,7 +20,7 @@ public class TransactionEvent {
     private BigDecimal amount;
     
     @JsonProperty("currency")
-    private String currency;
+    private CurrencyUnit currency;
     
     @JsonProperty("accountIban")
     private String accountIban;
@@ -42,7 +43,7 @@ public class TransactionEvent {
     
     public TransactionEvent() {}
     
-    public TransactionEvent(String transactionId, BigDecimal amount, String currency, 
+    public TransactionEvent(String transactionId, BigDecimal amount, CurrencyUnit currency, 
                            String accountIban, LocalDate valueDate, String description, 
                            String customerId, String eventType) {
         this.transactionId = transactionId;
@@ -72,11 +73,11 @@ public class TransactionEvent {
         this.amount = amount;
     }
     
-    public String getCurrency() {
+    public CurrencyUnit getCurrency() {
         return currency;
     }
     
-    public void setCurrency(String currency) {
+    public void setCurrency(CurrencyUnit currency) {
         this.currency = currency;
     }
     
@@ -146,7 +147,7 @@ public class TransactionEvent {
         return "TransactionEvent{" +
                 "transactionId='" + transactionId + '\'' +
                 ", amount=" + amount +
-                ", currency='" + currency + '\'' +
+                ", currency=" + currency +
                 ", accountIban='" + accountIban + '\'' +
                 ", valueDate=" + valueDate +
                 ", description='" + description + '\'' +
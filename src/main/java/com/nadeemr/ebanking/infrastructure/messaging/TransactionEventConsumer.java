@@ -1,8 +1,13 @@
 package com.nadeemr.ebanking.infrastructure.messaging;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.dto.TransactionFeedEventDto;
 import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.domain.service.TransactionVersionService;
 import com.nadeemr.ebanking.infrastructure.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -12,6 +17,13 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Kafka consumer for transaction events
@@ -22,11 +34,37 @@ public class TransactionEventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(TransactionEventConsumer.class);
     
     private final TransactionRepository transactionRepository;
+    private final TransactionVersionService transactionVersionService;
+    private final TransactionFeedRelay transactionFeedRelay;
     private final ObjectMapper objectMapper;
+    private final Counter processed;
+    private final Counter failed;
+    private final Timer duration;
+    private final Timer freshness;
     
-    public TransactionEventConsumer(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+    public TransactionEventConsumer(TransactionRepository transactionRepository,
+                                    TransactionVersionService transactionVersionService,
+                                    TransactionFeedRelay transactionFeedRelay,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
         this.transactionRepository = transactionRepository;
+        this.transactionVersionService = transactionVersionService;
+        this.transactionFeedRelay = transactionFeedRelay;
         this.objectMapper = objectMapper;
+        this.processed = Counter.builder("transactions.ingest.events")
+                .description("Transaction events applied")
+                .tag("result", "processed")
+                .register(meterRegistry);
+        this.failed = Counter.builder("transactions.ingest.events")
+                .description("Transaction events that failed and were left unacknowledged")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.duration = Timer.builder("transactions.ingest.duration")
+                .description("Time from receiving an event until its write and offset are committed")
+                .register(meterRegistry);
+        this.freshness = Timer.builder("transactions.ingest.freshness")
+                .description("Time from an event's record timestamp until its write is committed")
+                .register(meterRegistry);
     }
     
     @KafkaListener(topics = "${app.kafka.transaction-topic}", groupId = "${app.kafka.consumer-group}")
@@ -37,11 +75,13 @@ public class TransactionEventConsumer {
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
             Acknowledgment acknowledgment) {
         
         logger.info("Received transaction event - Topic: {}, Partition: {}, Offset: {}, Key: {}", 
                    topic, partition, offset, key);
         
+        long received = System.nanoTime();
         try {
             TransactionEvent event = objectMapper.readValue(payload, TransactionEvent.class);
             logger.debug("Parsed transaction event: {}", event);
@@ -50,9 +90,15 @@ public class TransactionEventConsumer {
             
             // Acknowledge the message after successful processing
             acknowledgment.acknowledge();
+            afterCommit(() -> {
+                duration.record(System.nanoTime() - received, TimeUnit.NANOSECONDS);
+                freshness.record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+            });
+            processed.increment();
             logger.debug("Successfully processed and acknowledged transaction event with key: {}", key);
             
         } catch (Exception e) {
+            failed.increment();
             logger.error("Error processing transaction event with key {}: {}", key, e.getMessage(), e);
             // Don't acknowledge - this will cause the message to be retried
             // In production, you might want to implement dead letter topic handling
@@ -82,11 +128,28 @@ public class TransactionEventConsumer {
         try {
             Transaction transaction = mapToTransaction(event);
             
-            // Check if transaction already exists
-            boolean exists = transactionRepository.existsById(transaction.getId());
+            // Check if transaction already exists, remembering the month it was in before the save overwrites it
+            Optional<Transaction> existing = transactionRepository.findById(transaction.getId());
+            boolean exists = existing.isPresent();
+            String previousCustomerId = existing.map(Transaction::getCustomerId).orElse(null);
+            LocalDate previousValueDate = existing.map(Transaction::getValueDate).orElse(null);
             
             Transaction savedTransaction = transactionRepository.save(transaction);
             
+            // Invalidate cached responses for every month the transaction appears or disappears in
+            transactionVersionService.bump(savedTransaction.getCustomerId(), savedTransaction.getValueDate());
+            if (exists && (!previousCustomerId.equals(savedTransaction.getCustomerId())
+                    || !YearMonth.from(previousValueDate).equals(YearMonth.from(savedTransaction.getValueDate())))) {
+                transactionVersionService.bump(previousCustomerId, previousValueDate);
+            }
+            
+            // Tell the customers' live feeds on every instance once the write commits
+            transactionFeedRelay.publish(savedTransaction.getCustomerId(),
+                    feedEvent(exists ? "UPDATE" : "CREATE", savedTransaction));
+            if (exists && !previousCustomerId.equals(savedTransaction.getCustomerId())) {
+                transactionFeedRelay.publish(previousCustomerId, feedEvent("DELETE", existing.get()));
+            }
+            
             String action = exists ? "Updated" : "Created";
             logger.info("{} transaction: {}", action, savedTransaction.getId());
             
@@ -98,8 +161,11 @@ public class TransactionEventConsumer {
     
     private void deleteTransaction(String transactionId) {
         try {
-            if (transactionRepository.existsById(transactionId)) {
-                transactionRepository.deleteById(transactionId);
+            Optional<Transaction> existing = transactionRepository.findById(transactionId);
+            if (existing.isPresent()) {
+                transactionRepository.delete(existing.get());
+                transactionVersionService.bump(existing.get().getCustomerId(), existing.get().getValueDate());
+                transactionFeedRelay.publish(existing.get().getCustomerId(), feedEvent("DELETE", existing.get()));
                 logger.info("Deleted transaction: {}", transactionId);
             } else {
                 logger.warn("Attempted to delete non-existent transaction: {}", transactionId);
@@ -110,7 +176,28 @@ public class TransactionEventConsumer {
         }
     }
     
-    private Transaction mapToTransaction(TransactionEvent event) {
+    /**
+     * Run once the listener's transaction commits, right away outside of one
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private TransactionFeedEventDto feedEvent(String eventType, Transaction transaction) {
+        return new TransactionFeedEventDto(eventType, transaction.getId(), transaction.getAccountIban(),
+                YearMonth.from(transaction.getValueDate()).toString());
+    }
+    
+    Transaction mapToTransaction(TransactionEvent event) {
         Transaction transaction = new Transaction();
         transaction.setId(event.getTransactionId());
         transaction.setAmount(event.getAmount());
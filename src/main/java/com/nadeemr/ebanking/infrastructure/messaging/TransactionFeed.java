@@ -0,0 +1,364 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.nadeemr.ebanking.api.dto.TransactionFeedEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans the transaction changes applied by any instance, as relayed by {@link TransactionFeedRelay},
+ * out to the customers' open Server-Sent Events streams on this instance. Every subscriber has a bounded queue drained on a platform sender
+ * thread of its own while it has events, so a slow client never blocks the Kafka consumer or the
+ * other subscribers. Not virtual threads: {@code SseEmitter} sends and completes inside
+ * {@code synchronized} blocks, where a blocked socket write would pin its carrier thread. A subscriber whose queue
+ * fills up, or whose send blocks longer than the send timeout, is disconnected rather than
+ * buffered. On reconnect the client's Last-Event-ID
+ * is replayed from a bounded buffer of recent events, and when that can't be done (the
+ * events were evicted or came from another instance) the client is told to resync.
+ */
+@Component
+public class TransactionFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionFeed.class);
+
+    static final String CHANGE_EVENT = "transaction";
+    static final String RESYNC_EVENT = "resync";
+
+    private static final FeedEntry HEARTBEAT = new FeedEntry(0, null, null, null);
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Recent events of all customers, guarded by itself; fan-out also happens under this lock
+    // so that a subscriber's replay and live events never interleave
+    private final ArrayDeque<FeedEntry> replay = new ArrayDeque<>();
+
+    private final Executor sender;
+    private final int queueCapacity;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Counter dropped;
+
+    @Autowired
+    public TransactionFeed(MeterRegistry meterRegistry,
+                           @Value("${app.feed.queue-capacity:64}") int queueCapacity,
+                           @Value("${app.feed.replay-size:1024}") int replaySize,
+                           @Value("${app.feed.max-subscribers:2000}") int maxSubscribers,
+                           @Value("${app.feed.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${app.feed.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this(senderExecutor(), meterRegistry, queueCapacity, replaySize, maxSubscribers, timeoutMs, sendTimeoutMs);
+    }
+
+    TransactionFeed(Executor sender, MeterRegistry meterRegistry, int queueCapacity, int replaySize,
+                    int maxSubscribers, long timeoutMs, long sendTimeoutMs) {
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.dropped = Counter.builder("transactions.feed.dropped")
+                .description("Feed subscribers disconnected because they fell too far behind or stopped reading")
+                .register(meterRegistry);
+        Gauge.builder("transactions.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open transaction feed streams on this instance")
+                .register(meterRegistry);
+        Gauge.builder("transactions.feed.queue.depth", this, TransactionFeed::getQueueDepth)
+                .description("Events waiting to be sent to feed subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the customer's transaction changes
+     *
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @throws RejectedExecutionException when this instance has no room for another subscriber
+     */
+    public SseEmitter subscribe(String customerId, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Transaction feed subscriber limit reached");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(customerId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        synchronized (replay) {
+            subscribers.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            if (lastEventId != null) {
+                replayTo(subscriber, lastEventId);
+            }
+        }
+
+        logger.debug("Customer {} subscribed to the transaction feed (last event id: {})", customerId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Publish a change to the customer's subscribers. Inside a transaction the change is held
+     * back until the transaction commits, so clients never reload before the write is visible.
+     */
+    public void publish(String customerId, TransactionFeedEventDto event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(customerId, event);
+                }
+            });
+        } else {
+            broadcast(customerId, event);
+        }
+    }
+
+    private void broadcast(String customerId, TransactionFeedEventDto event) {
+        synchronized (replay) {
+            FeedEntry entry = new FeedEntry(sequence.incrementAndGet(), customerId, CHANGE_EVENT, event);
+            replay.addLast(entry);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers.getOrDefault(customerId, Set.of())) {
+                subscriber.enqueue(entry);
+            }
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies and find clients that went away
+     */
+    @Scheduled(fixedDelayString = "${app.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(customerSubscribers -> customerSubscribers.forEach(s -> s.enqueue(HEARTBEAT)));
+    }
+
+    /**
+     * Drop the subscribers whose current send has been blocked on a full connection for longer
+     * than the send timeout. The blocked write itself ends when the container fails it.
+     */
+    @Scheduled(fixedDelayString = "${app.feed.send-timeout-ms:10000}")
+    public void expireStalledSends() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(customerSubscribers -> customerSubscribers.forEach(subscriber -> {
+            long sendStarted = subscriber.sendStarted;
+            if (sendStarted != NOT_SENDING && now - sendStarted > sendTimeoutNanos) {
+                subscriber.drop("stalled");
+            }
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Set<Subscriber> customerSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : customerSubscribers) {
+                depth += subscriber.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    String eventId(long sequence) {
+        return instanceId + ":" + sequence;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(customerSubscribers -> customerSubscribers.forEach(s -> s.emitter.complete()));
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        long oldestSequence = replay.isEmpty() ? sequence.get() + 1 : replay.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence.get() || lastSequence + 1 < oldestSequence) {
+            subscriber.enqueue(new FeedEntry(sequence.get(), subscriber.customerId, RESYNC_EVENT, "reload"));
+            return;
+        }
+        for (FeedEntry entry : replay) {
+            if (entry.sequence() > lastSequence && entry.customerId().equals(subscriber.customerId)) {
+                subscriber.enqueue(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the sequence number of an event id issued by this instance, -1 otherwise
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf(':');
+        if (separator < 0 || !eventId.substring(0, separator).equals(instanceId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return whether the subscriber was still subscribed
+     */
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.customerId, (id, customerSubscribers) -> {
+            customerSubscribers.remove(subscriber);
+            return customerSubscribers.isEmpty() ? null : customerSubscribers;
+        });
+        logger.debug("Customer {} unsubscribed from the transaction feed", subscriber.customerId);
+        return true;
+    }
+
+    /**
+     * A platform thread per draining subscriber, so a blocked send holds up no one else
+     */
+    private static ExecutorService senderExecutor() {
+        return Executors.newCachedThreadPool(new SenderThreadFactory());
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(FeedEntry entry) {
+        if (entry == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event()
+                .id(eventId(entry.sequence()))
+                .name(entry.name())
+                .data(entry.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private record FeedEntry(long sequence, String customerId, String name, Object data) {
+    }
+
+    private final class Subscriber {
+
+        private final String customerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedEntry> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Start of the send in progress, NOT_SENDING between sends
+        private volatile long sendStarted = NOT_SENDING;
+
+        private Subscriber(String customerId, SseEmitter emitter) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(FeedEntry entry) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                // Fell too far behind; the client reconnects and catches up from the replay buffer
+                drop("slow");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Disconnect the subscriber. Completing waits for a send in progress on the emitter, so
+         * it happens on a sender thread rather than under the caller's (possibly the fan-out) lock.
+         */
+        void drop(String reason) {
+            if (!remove(this)) {
+                return;
+            }
+            logger.warn("Dropping {} transaction feed subscriber for customer {}", reason, customerId);
+            dropped.increment();
+            try {
+                sender.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Shutting down, which completes every emitter anyway
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEntry entry;
+                while (!closed.get() && (entry = queue.poll()) != null) {
+                    sendStarted = System.nanoTime();
+                    emitter.send(toEvent(entry));
+                    sendStarted = NOT_SENDING;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports the error and completes the emitter
+                logger.debug("Transaction feed send to customer {} failed: {}", customerId, e.getMessage());
+                remove(this);
+            } finally {
+                sendStarted = NOT_SENDING;
+                draining.set(false);
+            }
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "feed-sender-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
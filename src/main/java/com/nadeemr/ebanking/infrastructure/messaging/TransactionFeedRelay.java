@@ -0,0 +1,104 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.dto.TransactionFeedEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Carries the transaction changes applied by any instance to the feeds of all of them. The
+ * transaction consumers share a group, so each instance only applies the changes of its own
+ * partitions, while a customer's stream may be open on any instance. Once a write commits its
+ * change is sent to the feed topic ({@code app.kafka.feed-topic}, keyed by customer), which every
+ * instance reads in full without a consumer group and hands to its {@link TransactionFeed}.
+ * Reading can be switched off with {@code app.feed.relay.enabled=false} where there is no broker:
+ * an assigned consumer blocks looking up its position until one answers, holding up shutdown.
+ */
+@Component
+public class TransactionFeedRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionFeedRelay.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionFeed transactionFeed;
+    private final ObjectMapper objectMapper;
+    private final String feedTopic;
+    private final Counter failures;
+
+    public TransactionFeedRelay(KafkaTemplate<String, String> kafkaTemplate,
+                                TransactionFeed transactionFeed,
+                                ObjectMapper objectMapper,
+                                @Value("${app.kafka.feed-topic}") String feedTopic,
+                                MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionFeed = transactionFeed;
+        this.objectMapper = objectMapper;
+        this.feedTopic = feedTopic;
+        this.failures = Counter.builder("transactions.feed.relay.failures")
+                .description("Feed notifications that could not be sent to or read from the feed topic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send a change to every instance's feed. Inside a transaction the change is held back until
+     * the transaction commits, so clients never reload before the write is visible.
+     */
+    public void publish(String customerId, TransactionFeedEventDto event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(customerId, event);
+                }
+            });
+        } else {
+            send(customerId, event);
+        }
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(
+                           topic = "${app.kafka.feed-topic}",
+                           partitions = "${app.kafka.feed-partitions:0}"),
+                   containerFactory = "transactionFeedListenerContainerFactory",
+                   autoStartup = "${app.feed.relay.enabled:true}")
+    public void relay(@Payload String payload,
+                      @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String customerId) {
+        try {
+            transactionFeed.publish(customerId, objectMapper.readValue(payload, TransactionFeedEventDto.class));
+        } catch (Exception e) {
+            // A missed notification only delays the client until its next reload
+            failures.increment();
+            logger.error("Error relaying feed notification for customer {}: {}", customerId, e.getMessage(), e);
+        }
+    }
+
+    private void send(String customerId, TransactionFeedEventDto event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            failures.increment();
+            logger.error("Error serializing feed notification for customer {}: {}", customerId, e.getMessage(), e);
+            return;
+        }
+        kafkaTemplate.send(feedTopic, customerId, payload).whenComplete((result, e) -> {
+            if (e != null) {
+                failures.increment();
+                logger.warn("Feed notification for customer {} not sent: {}", customerId, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.nadeemr.ebanking.infrastructure.repository;
+
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Row;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking read access to the transaction tables over R2DBC, used by the reactive
+ * deployment mode. Mirrors the queries of {@link TransactionRepository}; writes keep going
+ * through JPA. The pool is private to this reader rather than a {@code ConnectionFactory}
+ * bean, because such a bean would switch off the JPA data source auto-configuration.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTransactionReader.class);
+
+    private static final String SELECT_TRANSACTIONS =
+            "SELECT id, amount, currency, account_iban, value_date, description, customer_id, created_at " +
+            "FROM transactions ";
+    private static final String MONTH_FILTER =
+            "WHERE customer_id = :customerId AND value_date >= :startDate AND value_date <= :endDate ";
+    private static final String ACCOUNT_FILTER = "AND account_iban = :accountIban ";
+    private static final String PAGE_ORDER = "ORDER BY value_date DESC, created_at DESC LIMIT :limit OFFSET :offset";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTransactionReader(@Value("${app.reactive.r2dbc.url}") String url,
+                                     @Value("${app.reactive.r2dbc.username:}") String username,
+                                     @Value("${app.reactive.r2dbc.password:}") String password,
+                                     @Value("${app.reactive.r2dbc.pool.initial-size:4}") int initialSize,
+                                     @Value("${app.reactive.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(Math.min(initialSize, maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        logger.info("Reactive transaction reader using {} with up to {} connections",
+                options.getValue(ConnectionFactoryOptions.DRIVER), maxSize);
+    }
+
+    /**
+     * Find a page of the customer's transactions in a month, newest first
+     *
+     * @param accountIban account to filter by, or null for all accounts
+     */
+    public Flux<Transaction> findPage(String customerId, LocalDate startDate, LocalDate endDate,
+                                      String accountIban, long offset, int limit) {
+        String sql = SELECT_TRANSACTIONS + MONTH_FILTER + (accountIban != null ? ACCOUNT_FILTER : "") + PAGE_ORDER;
+        return bindMonth(databaseClient.sql(sql), customerId, startDate, endDate, accountIban)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map((row, metadata) -> toTransaction(row))
+                .all();
+    }
+
+    /**
+     * Find all of the customer's transactions in a month (for summary calculation)
+     *
+     * @param accountIban account to filter by, or null for all accounts
+     */
+    public Flux<Transaction> findMonth(String customerId, LocalDate startDate, LocalDate endDate, String accountIban) {
+        String sql = SELECT_TRANSACTIONS + MONTH_FILTER + (accountIban != null ? ACCOUNT_FILTER : "");
+        return bindMonth(databaseClient.sql(sql), customerId, startDate, endDate, accountIban)
+                .map((row, metadata) -> toTransaction(row))
+                .all();
+    }
+
+    /**
+     * Count the customer's transactions in a month
+     *
+     * @param accountIban account to filter by, or null for all accounts
+     */
+    public Mono<Long> count(String customerId, LocalDate startDate, LocalDate endDate, String accountIban) {
+        String sql = "SELECT COUNT(*) AS total FROM transactions " + MONTH_FILTER + (accountIban != null ? ACCOUNT_FILTER : "");
+        return bindMonth(databaseClient.sql(sql), customerId, startDate, endDate, accountIban)
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Version stamp of the customer's month, 0 when the month has never been written
+     */
+    public Mono<Long> findVersion(String customerId, String monthKey) {
+        return databaseClient.sql("SELECT version FROM transaction_month_versions " +
+                        "WHERE customer_id = :customerId AND month_key = :monthKey")
+                .bind("customerId", customerId)
+                .bind("monthKey", monthKey)
+                .map((row, metadata) -> row.get("version", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindMonth(DatabaseClient.GenericExecuteSpec spec, String customerId,
+                                                               LocalDate startDate, LocalDate endDate, String accountIban) {
+        spec = spec.bind("customerId", customerId)
+                .bind("startDate", startDate)
+                .bind("endDate", endDate);
+        return accountIban != null ? spec.bind("accountIban", accountIban) : spec;
+    }
+
+    private static Transaction toTransaction(Row row) {
+        Transaction transaction = new Transaction(
+                row.get("id", String.class),
+                row.get("amount", BigDecimal.class),
+                CurrencyRegistry.resolve(row.get("currency", String.class)),
+                row.get("account_iban", String.class),
+                row.get("value_date", LocalDate.class),
+                row.get("description", String.class),
+                row.get("customer_id", String.class));
+        transaction.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        return transaction;
+    }
+}
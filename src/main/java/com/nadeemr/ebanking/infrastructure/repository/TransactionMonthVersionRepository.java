@@ -0,0 +1,23 @@
+package com.nadeemr.ebanking.infrastructure.repository;
+
+import com.nadeemr.ebanking.domain.model.TransactionMonthVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransactionMonthVersionRepository
+        extends JpaRepository<TransactionMonthVersion, TransactionMonthVersion.Key>, TransactionMonthVersionUpsert {
+
+    /**
+     * Current version of a customer month, without loading the entity
+     */
+    @Query("SELECT v.version FROM TransactionMonthVersion v " +
+           "WHERE v.customerId = :customerId AND v.monthKey = :monthKey")
+    Optional<Long> findVersion(
+            @Param("customerId") String customerId,
+            @Param("monthKey") String monthKey);
+}
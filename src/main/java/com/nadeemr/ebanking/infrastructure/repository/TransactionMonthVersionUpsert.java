@@ -0,0 +1,16 @@
+package com.nadeemr.ebanking.infrastructure.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository fragment bumping a customer month's version in one statement
+ */
+public interface TransactionMonthVersionUpsert {
+
+    /**
+     * Increment the version of a customer month, creating it at version 1 on its first write.
+     * A single statement, so concurrent first writes to the same month neither collide on the
+     * primary key nor set the version back.
+     */
+    void upsertIncrement(String customerId, String monthKey, LocalDateTime updatedAt);
+}
@@ -0,0 +1,51 @@
+package com.nadeemr.ebanking.infrastructure.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@code INSERT ... ON CONFLICT} on PostgreSQL, a standard {@code MERGE} elsewhere (H2)
+ */
+class TransactionMonthVersionUpsertImpl implements TransactionMonthVersionUpsert {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO transaction_month_versions (customer_id, month_key, version, updated_at) " +
+            "VALUES (:customerId, :monthKey, 1, :updatedAt) " +
+            "ON CONFLICT (customer_id, month_key) " +
+            "DO UPDATE SET version = transaction_month_versions.version + 1, updated_at = EXCLUDED.updated_at";
+
+    private static final String MERGE =
+            "MERGE INTO transaction_month_versions v " +
+            "USING (SELECT CAST(:customerId AS VARCHAR(12)) AS customer_id, " +
+            "CAST(:monthKey AS VARCHAR(7)) AS month_key, " +
+            "CAST(:updatedAt AS TIMESTAMP) AS updated_at) s " +
+            "ON v.customer_id = s.customer_id AND v.month_key = s.month_key " +
+            "WHEN MATCHED THEN UPDATE SET version = v.version + 1, updated_at = s.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (customer_id, month_key, version, updated_at) " +
+            "VALUES (s.customer_id, s.month_key, 1, s.updated_at)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertIncrement(String customerId, String monthKey, LocalDateTime updatedAt) {
+        entityManager.createNativeQuery(isPostgres() ? POSTGRES_UPSERT : MERGE)
+                .setParameter("customerId", customerId)
+                .setParameter("monthKey", monthKey)
+                .setParameter("updatedAt", updatedAt)
+                .executeUpdate();
+    }
+
+    private boolean isPostgres() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return dialect instanceof PostgreSQLDialect;
+    }
+}
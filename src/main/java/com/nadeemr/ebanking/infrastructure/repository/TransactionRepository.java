@@ -3,6 +3,7 @@ package com.nadeemr.ebanking.infrastructure.repository;
 import com.nadeemr.ebanking.domain.model.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -40,6 +41,32 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
             @Param("accountIban") String accountIban,
             Pageable pageable);
     
+    /**
+     * Find a page of transactions for a customer in a specific month without counting the month
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.customerId = :customerId " +
+           "AND t.valueDate >= :startDate AND t.valueDate <= :endDate " +
+           "ORDER BY t.valueDate DESC, t.createdAt DESC")
+    Slice<Transaction> findSliceByCustomerIdAndValueDateBetween(
+            @Param("customerId") String customerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            Pageable pageable);
+    
+    /**
+     * Find a page of transactions for a customer in a specific month and account without counting the month
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.customerId = :customerId " +
+           "AND t.valueDate >= :startDate AND t.valueDate <= :endDate " +
+           "AND t.accountIban = :accountIban " +
+           "ORDER BY t.valueDate DESC, t.createdAt DESC")
+    Slice<Transaction> findSliceByCustomerIdAndValueDateBetweenAndAccountIban(
+            @Param("customerId") String customerId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("accountIban") String accountIban,
+            Pageable pageable);
+    
     /**
      * Find all transactions for a customer in a specific month (for summary calculation)
      */
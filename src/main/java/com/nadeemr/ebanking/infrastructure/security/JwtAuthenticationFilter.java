@@ -1,41 +1,34 @@
 package com.nadeemr.ebanking.infrastructure.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * JWT Authentication Filter for validating JWT tokens
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private static final String HEADER_NAME = "Authorization";
     private static final String TOKEN_PREFIX = "Bearer ";
     
-    private final SecretKey secretKey;
+    private final JwtTokenValidator tokenValidator;
     
-    public JwtAuthenticationFilter(@Value("${app.jwt.secret}") String jwtSecret) {
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtAuthenticationFilter(JwtTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
     }
     
     @Override
@@ -48,7 +41,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(TOKEN_PREFIX.length());
             
             try {
-                Authentication authentication = validateTokenAndGetAuthentication(token);
+                Authentication authentication = tokenValidator.validateTokenAndGetAuthentication(token);
                 if (authentication != null) {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     logger.debug("JWT authentication successful for user: {}", authentication.getName());
@@ -65,35 +58,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
-    private Authentication validateTokenAndGetAuthentication(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            String customerId = claims.getSubject();
-            String customerRole = claims.get("role", String.class);
-            
-            if (customerId != null && customerId.matches("^P-[0-9]{10}$")) {
-                List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                        new SimpleGrantedAuthority("ROLE_" + (customerRole != null ? customerRole : "CUSTOMER"))
-                );
-                
-                return new UsernamePasswordAuthenticationToken(customerId, null, authorities);
-            }
-            
-            return null;
-        } catch (Exception e) {
-            logger.error("Error validating JWT token: {}", e.getMessage());
-            throw new RuntimeException("Invalid JWT token", e);
-        }
-    }
-    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
+        // Statement statistics are admin-only, so their token has to be read
+        if (path.startsWith("/actuator/dbstats")) {
+            return false;
+        }
         return path.startsWith("/actuator/") || 
                path.startsWith("/swagger-ui/") || 
                path.startsWith("/v3/api-docs") ||
@@ -0,0 +1,163 @@
+package com.nadeemr.ebanking.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Validates customer JWT tokens; a single instance, and so a single cache, is shared by the
+ * servlet and reactive security filters.
+ * <p>
+ * Clients reuse the same token for its whole lifetime, so the outcome of a successful validation
+ * is kept until the token's {@code exp}, keyed by a SHA-256 digest of the token rather than the
+ * token itself; a repeated token then costs one digest instead of the HMAC check and the claims
+ * parsing. Invalid tokens are never cached, and neither are tokens without an expiration.
+ * The cache is bounded, evicting the least recently used tokens first.
+ * <p>
+ * Registers {@code jwt.validation.cache.requests} tagged {@code result=hit|miss} and
+ * {@code jwt.validation.duration}, the cost of a full validation that each hit saves.
+ */
+@Component
+public class JwtTokenValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenValidator.class);
+
+    private static final Pattern CUSTOMER_ID = Pattern.compile("^P-[0-9]{10}$");
+
+    private record Verified(Authentication authentication, long expiresAtMillis) {
+    }
+
+    private final JwtParser parser;
+    private final ConcurrentMap<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
+
+    // Guarded by itself
+    private final Map<String, Verified> verified;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer validation;
+
+    public JwtTokenValidator(@Value("${app.jwt.secret}") String jwtSecret,
+                             @Value("${app.jwt.cache-size:10000}") int cacheSize,
+                             MeterRegistry meterRegistry) {
+        // The parser is immutable and safe to share between threads
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .build();
+        this.verified = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.hits = Counter.builder("jwt.validation.cache.requests")
+                .description("Tokens accepted from an earlier validation")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.validation.cache.requests")
+                .description("Tokens that had their signature and claims checked")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.validation = Timer.builder("jwt.validation.duration")
+                .description("Time to verify a token's signature and parse its claims")
+                .register(meterRegistry);
+        Gauge.builder("jwt.validation.cache.size", this, JwtTokenValidator::getCacheSize)
+                .description("Validated tokens held until they expire")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the customer's authentication, or null when the token doesn't name a customer
+     * @throws RuntimeException when the token is invalid or expired
+     */
+    public Authentication validateTokenAndGetAuthentication(String token) {
+        String key = digest(token);
+        Verified cached;
+        synchronized (verified) {
+            cached = verified.get(key);
+            if (cached != null && System.currentTimeMillis() >= cached.expiresAtMillis()) {
+                verified.remove(key);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.authentication();
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            logger.error("Error validating JWT token: {}", e.getMessage());
+            throw new RuntimeException("Invalid JWT token", e);
+        }
+        Authentication authentication = authenticationFrom(claims);
+        validation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            synchronized (verified) {
+                verified.put(key, new Verified(authentication, expiration.getTime()));
+            }
+        }
+        return authentication;
+    }
+
+    public int getCacheSize() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    private Authentication authenticationFrom(Claims claims) {
+        String customerId = claims.getSubject();
+        if (customerId == null || !CUSTOMER_ID.matcher(customerId).matches()) {
+            return null;
+        }
+        String customerRole = claims.get("role", String.class);
+        List<GrantedAuthority> authorities = authoritiesByRole.computeIfAbsent(
+                customerRole != null ? customerRole : "CUSTOMER",
+                role -> List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+
+        // Handed out to every request presenting the token, it is not modified afterwards
+        return new UsernamePasswordAuthenticationToken(customerId, null, authorities);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.nadeemr.ebanking.infrastructure.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+/**
+ * Security configuration of the reactive deployment mode, mirroring {@link SecurityConfig}
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final JwtTokenValidator tokenValidator;
+
+    public ReactiveSecurityConfig(JwtTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        HttpStatusServerEntryPoint unauthorized = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+
+        // The JWT is validated while converting the request; the manager only passes it on
+        AuthenticationWebFilter jwtAuthenticationFilter = new AuthenticationWebFilter((ReactiveAuthenticationManager) Mono::just);
+        jwtAuthenticationFilter.setServerAuthenticationConverter(this::authenticationFrom);
+        jwtAuthenticationFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(unauthorized));
+        jwtAuthenticationFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(unauthorized))
+            .authorizeExchange(authz -> authz
+                // Statement statistics expose SQL text
+                .pathMatchers("/actuator/dbstats/**").hasRole("ADMIN")
+
+                // Public endpoints
+                .pathMatchers("/actuator/**").permitAll()
+                .pathMatchers("/swagger-ui/**").permitAll()
+                .pathMatchers("/v3/api-docs/**").permitAll()
+                .pathMatchers("/health").permitAll()
+                .pathMatchers("/metrics").permitAll()
+                .pathMatchers("/api/v1/auth/**").permitAll()
+
+                // API endpoints require authentication; admins read them too, e.g. for their timings
+                .pathMatchers(HttpMethod.GET, "/api/v1/transactions/**").hasAnyRole("CUSTOMER", "ADMIN")
+
+                // All other requests need authentication
+                .anyExchange().authenticated()
+            )
+            .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(Arrays.asList("*"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    /**
+     * Authentication from the bearer token, empty when the request carries none or it doesn't name a customer
+     */
+    private Mono<Authentication> authenticationFrom(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> tokenValidator.validateTokenAndGetAuthentication(bearerToken.substring(7)))
+                .onErrorMap(e -> new BadCredentialsException("Invalid or expired JWT token", e));
+    }
+}
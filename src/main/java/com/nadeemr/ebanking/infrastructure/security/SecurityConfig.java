@@ -1,5 +1,6 @@
 package com.nadeemr.ebanking.infrastructure.security;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,6 +22,7 @@ import java.util.Arrays;
  * Security configuration for the eBanking application
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -38,6 +40,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Statement statistics expose SQL text
+                .requestMatchers(new AntPathRequestMatcher("/actuator/dbstats/**")).hasRole("ADMIN")
+
                 // Public endpoints
                 .requestMatchers(new AntPathRequestMatcher("/actuator/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/swagger-ui/**")).permitAll()
@@ -47,8 +52,8 @@ public class SecurityConfig {
                 .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/v1/auth/**")).permitAll()
                 
-                // API endpoints require authentication
-                .requestMatchers(new AntPathRequestMatcher("/api/v1/transactions/**", "GET")).hasRole("CUSTOMER")
+                // API endpoints require authentication; admins read them too, e.g. for their timings
+                .requestMatchers(new AntPathRequestMatcher("/api/v1/transactions/**", "GET")).hasAnyRole("CUSTOMER", "ADMIN")
                 
                 // All other requests need authentication
                 .anyRequest().authenticated()
@@ -0,0 +1,102 @@
+package com.nadeemr.ebanking.infrastructure.timing;
+
+import com.nadeemr.ebanking.domain.service.QueryCost;
+import com.nadeemr.ebanking.infrastructure.jdbc.RequestStatements;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Timings of one request that asked for a {@code Server-Timing} header, kept as a request
+ * attribute by the {@link ServerTimingFilter}. The query stages come from the {@link QueryCost}
+ * collected meanwhile; serialization is reported by whoever writes the body.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final long startNanos = System.nanoTime();
+    private long serializationStartNanos = -1;
+    private long serializationNanos = -1;
+    private boolean serializationCached;
+
+    ServerTiming() {
+    }
+
+    /**
+     * The timings of the current request, when it asked for them
+     */
+    public static Optional<ServerTiming> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? Optional.empty()
+                : Optional.ofNullable((ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * The message converters are about to write the body; the rest of the request is serialization
+     */
+    void serializing() {
+        if (serializationStartNanos < 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * The body was serialized by the controller itself
+     *
+     * @param cached whether already serialized bytes were reused
+     */
+    public void serialized(long nanos, boolean cached) {
+        serializationNanos = nanos;
+        serializationCached = cached;
+    }
+
+    /**
+     * Header value with the query stages, the serialization and the rows of the request. Durations
+     * are in milliseconds; {@code count} is part of {@code db} and only known when statements are
+     * counted, {@code other} is the time the queries spent outside of their stages.
+     *
+     * @param statements statements of the request, or null when they are not counted
+     */
+    String header(long endNanos, QueryCost cost, RequestStatements statements) {
+        StringJoiner header = new StringJoiner(", ");
+        header.add(metric("db", cost.databaseNanos(),
+                statements != null ? "statements=" + statements.statementCount() : null));
+        if (statements != null) {
+            header.add(metric("count", countMicros(statements) * 1_000, null));
+        }
+        header.add(metric("fx", cost.exchangeRateNanos(), null));
+        header.add(metric("mapping", cost.mappingNanos(), null));
+        header.add(metric("other", cost.otherNanos(), null));
+        long serialization = serializationNanos >= 0 ? serializationNanos
+                : serializationStartNanos >= 0 ? endNanos - serializationStartNanos
+                : -1;
+        if (serialization >= 0) {
+            header.add(metric("serialize", serialization, serializationCached ? "cached" : null));
+        }
+        header.add("rows;desc=\"page=" + cost.pageRows() + " month=" + cost.monthRows() + "\"");
+        header.add(metric("total", endNanos - startNanos, null));
+        return header.toString();
+    }
+
+    private static long countMicros(RequestStatements statements) {
+        long micros = 0;
+        for (RequestStatements.ExecutedStatement statement : statements.statements()) {
+            if (statement.sql().regionMatches(true, 0, "select count(", 0, 13)) {
+                micros += statement.durationMicros();
+            }
+        }
+        return micros;
+    }
+
+    private static String metric(String name, long nanos, String description) {
+        String metric = name + ";dur=" + String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+        return description != null ? metric + ";desc=\"" + description + "\"" : metric;
+    }
+}
@@ -0,0 +1,76 @@
+package com.nadeemr.ebanking.infrastructure.timing;
+
+import com.nadeemr.ebanking.domain.service.QueryCost;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatistics;
+import com.nadeemr.ebanking.infrastructure.jdbc.RequestStatements;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Adds a {@code Server-Timing} header to the transaction responses of requests that ask for it
+ * with the request header, and of admin tokens. Those responses are buffered, so the header can
+ * still be set once the body is serialized; other requests pass straight through. The live feed
+ * is left alone since its responses stay open by design.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final String requestHeader;
+    private final String adminAuthority;
+    private final JdbcStatistics jdbcStatistics;
+
+    /**
+     * @param requestHeader  header a request sets to {@code true} to ask for the timings, empty to
+     *                       only give them to admin tokens
+     * @param adminRole      role whose tokens always get the timings
+     * @param jdbcStatistics to report statements and the count query, or null when they are not counted
+     */
+    public ServerTimingFilter(String requestHeader, String adminRole, JdbcStatistics jdbcStatistics) {
+        this.requestHeader = requestHeader;
+        this.adminAuthority = "ROLE_" + adminRole;
+        this.jdbcStatistics = jdbcStatistics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!requested(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = new ServerTiming();
+        request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try (QueryCost cost = QueryCost.collect()) {
+            filterChain.doFilter(request, buffered);
+            RequestStatements statements = jdbcStatistics != null
+                    ? jdbcStatistics.currentRequest().orElse(null)
+                    : null;
+            buffered.setHeader(ServerTiming.HEADER, timing.header(System.nanoTime(), cost, statements));
+        } finally {
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private boolean requested(HttpServletRequest request) {
+        if (!requestHeader.isEmpty() && "true".equalsIgnoreCase(request.getHeader(requestHeader))) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> adminAuthority.equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.nadeemr.ebanking.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one computation: the first caller computes
+ * on its own thread while callers arriving meanwhile wait for and share its result or exception.
+ * Nothing is cached, the key is released as soon as the computation finishes. Shared results
+ * must therefore be treated as read-only by every caller.
+ * <p>
+ * Registers {@code <name>.calls} tagged {@code outcome=executed|coalesced}, whose ratio is
+ * the share of calls that were saved, and {@code <name>.inflight}.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder(name + ".calls")
+                .description("Calls that ran their computation")
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(name + ".calls")
+                .description("Calls that shared the result of an identical call in flight")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder(name + ".inflight", inFlight, ConcurrentMap::size)
+                .description("Distinct computations in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the computation for the key, or wait for the one already running for an equal key
+     *
+     * @throws RuntimeException the exception thrown by the computation, also to waiting callers
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        executed.increment();
+        try {
+            V result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.nadeemr.ebanking.util;
 
 import com.nadeemr.ebanking.api.dto.TransactionDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 import com.nadeemr.ebanking.domain.model.Transaction;
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
@@ -14,4 +16,12 @@ public interface TransactionMapper {
     TransactionDto toDto(Transaction transaction);
     
     Transaction toEntity(TransactionDto transactionDto);
+    
+    default String map(CurrencyUnit currency) {
+        return currency != null ? currency.getCode() : null;
+    }
+    
+    default CurrencyUnit map(String code) {
+        return code != null ? CurrencyRegistry.resolve(code) : null;
+    }
 }
@@ -0,0 +1,38 @@
+package com.nadeemr.ebanking.api.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of minting a customer token
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthControllerBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthControllerBenchmark {
+
+    private final AuthController authController =
+            new AuthController("mySecretKey12345678901234567890123456789012345678901234567890");
+    private final AuthController.TokenRequest tokenRequest = new AuthController.TokenRequest("P-0123456789");
+
+    @Benchmark
+    public ResponseEntity<AuthController.TokenResponse> generateToken() {
+        return authController.generateToken(tokenRequest);
+    }
+}
@@ -1,9 +1,16 @@
 package com.nadeemr.ebanking.api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.nadeemr.ebanking.api.dto.TransactionBatchRequestDto;
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
 import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
 import com.nadeemr.ebanking.domain.service.TransactionService;
+import com.nadeemr.ebanking.domain.service.TransactionVersionService;
+import com.nadeemr.ebanking.infrastructure.cache.ResponseBytesCache;
+import com.nadeemr.ebanking.infrastructure.messaging.TransactionFeed;
+import com.nadeemr.ebanking.infrastructure.security.JwtTokenValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +22,22 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 
 import org.springframework.context.annotation.Import;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -42,6 +59,18 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
     
+    @MockBean
+    private TransactionVersionService transactionVersionService;
+    
+    @MockBean
+    private TransactionFeed transactionFeed;
+    
+    @MockBean
+    private ResponseBytesCache responseBytesCache;
+    
+    @MockBean
+    private JwtTokenValidator jwtTokenValidator;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -59,7 +88,7 @@ class TransactionControllerTest {
     @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
     void getTransactions_ValidRequest_ShouldReturnOk() throws Exception {
         // Given
-        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class)))
+        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong()))
             .thenReturn(mockResponse);
         
         // When & Then
@@ -75,6 +104,134 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.summary.baseCurrency").value("EUR"));
     }
     
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void getTransactions_AcceptCbor_ShouldRenderSameContractAsCbor() throws Exception {
+        // Given
+        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong()))
+            .thenReturn(mockResponse);
+        
+        // When
+        byte[] body = mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10")
+                .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        // Then
+        JsonNode cbor = new CBORMapper().readTree(body);
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(mockResponse));
+        assertEquals(json.get("summary").get("baseCurrency"), cbor.get("summary").get("baseCurrency"));
+        assertEquals(json.get("pageInfo"), cbor.get("pageInfo"));
+    }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void getTransactions_AcceptCbor_ShouldTagTheCborRenderingApart() throws Exception {
+        // Given
+        when(transactionVersionService.getETag(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong(),
+                eq(MediaType.APPLICATION_JSON_VALUE)))
+            .thenReturn(Optional.of("\"3-abc\""));
+        when(transactionVersionService.getETag(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong(),
+                eq(MediaType.APPLICATION_CBOR_VALUE)))
+            .thenReturn(Optional.of("\"3-def\""));
+        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong()))
+            .thenReturn(mockResponse);
+        
+        // When & Then
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10")
+                .accept("application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"3-def\""))
+                .andExpect(header().string("Vary", "Accept"));
+        
+        // The JSON rendering's tag doesn't validate a cached CBOR body
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10")
+                .accept("application/cbor")
+                .header("If-None-Match", "\"3-abc\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-def\""));
+    }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void getTransactions_CachedResponse_ShouldWriteStoredBytesWithoutLoading() throws Exception {
+        // Given
+        byte[] stored = objectMapper.writeValueAsBytes(mockResponse);
+        when(transactionVersionService.getETag(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong(),
+                eq(MediaType.APPLICATION_JSON_VALUE)))
+            .thenReturn(Optional.of("\"3-abc\""));
+        when(responseBytesCache.get("P-0123456789", "\"3-abc\"", MediaType.APPLICATION_JSON_VALUE))
+            .thenReturn(Optional.of(new ResponseBytesCache.CachedResponse(stored, "\"3-abc\"", MediaType.APPLICATION_JSON_VALUE)));
+        
+        // When & Then
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"3-abc\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().bytes(stored));
+        
+        verify(transactionService, never()).getTransactions(any(), any(TransactionSearchDto.class), anyLong());
+    }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void getTransactions_UncachedResponse_ShouldSerializeOnceAndCacheIt() throws Exception {
+        // Given
+        when(transactionVersionService.getETag(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong(),
+                eq(MediaType.APPLICATION_JSON_VALUE)))
+            .thenReturn(Optional.of("\"3-abc\""));
+        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong()))
+            .thenReturn(mockResponse);
+        
+        // When & Then
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(mockResponse)));
+        
+        verify(responseBytesCache).put(eq("P-0123456789"), eq(YearMonth.of(2023, 10)),
+            argThat(cached -> cached.eTag().equals("\"3-abc\"")));
+    }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void getTransactions_MatchingETag_ShouldReturnNotModifiedWithoutLoading() throws Exception {
+        // Given
+        when(transactionVersionService.getETag(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong(),
+                eq(MediaType.APPLICATION_JSON_VALUE)))
+            .thenReturn(Optional.of("\"3-abc\""));
+        when(transactionService.getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong()))
+            .thenReturn(mockResponse);
+        
+        // When & Then
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-abc\""));
+        
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10")
+                .header("If-None-Match", "\"3-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+        
+        mockMvc.perform(get("/api/v1/transactions")
+                .param("yearMonth", "2023-10")
+                .header("If-None-Match", "\"2-abc\""))
+                .andExpect(status().isOk());
+        
+        verify(transactionService, times(2))
+            .getTransactions(eq("P-0123456789"), any(TransactionSearchDto.class), anyLong());
+    }
+    
     @Test
     @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
     void getTransactions_InvalidYearMonth_ShouldReturnBadRequest() throws Exception {
@@ -136,4 +293,43 @@ class TransactionControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
     }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void batchTransactions_ValidRequest_ShouldReturnResultsInOrder() throws Exception {
+        // Given
+        TransactionBatchRequestDto batch = new TransactionBatchRequestDto(Arrays.asList(
+            new TransactionSearchDto("2023-10", 0, 10, "EUR"),
+            new TransactionSearchDto("2023-09", 0, 10, "CHF")));
+        
+        when(transactionService.getTransactions(eq("P-0123456789"), anyList()))
+            .thenReturn(Arrays.asList(mockResponse, mockResponse));
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[1].summary.baseCurrency").value("EUR"));
+        
+        verify(transactionService).getTransactions(eq("P-0123456789"), eq(batch.getQueries()));
+    }
+    
+    @Test
+    @WithMockUser(username = "P-0123456789", roles = "CUSTOMER")
+    void batchTransactions_InvalidQuery_ShouldReturnBadRequest() throws Exception {
+        // Given
+        TransactionBatchRequestDto batch = new TransactionBatchRequestDto(Arrays.asList(
+            new TransactionSearchDto("2023-10", 0, 10, "EUR"),
+            new TransactionSearchDto("invalid", 0, 10, "EUR")));
+        
+        // When & Then
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,65 @@
+package com.nadeemr.ebanking.api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseFieldsetModuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SparseFieldsetModule());
+
+    @Test
+    void write_PageWithoutFieldset_ShouldKeepNullValues() throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(page(false)));
+
+        JsonNode transaction = json.get("transactions").get(0);
+        assertTrue(transaction.has("description"));
+        assertTrue(transaction.get("description").isNull());
+        assertTrue(transaction.get("convertedAmount").isNull());
+        assertTrue(json.get("summary").isNull());
+        assertTrue(json.get("pageInfo").get("totalElements").isNull());
+    }
+
+    @Test
+    void write_SparsePage_ShouldLeaveOutUnselectedProperties() throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(page(true)));
+
+        JsonNode transaction = json.get("transactions").get(0);
+        assertEquals("89d3o179-abcd-465b-o9ee-e2d5f6ofEld46", transaction.get("id").asText());
+        assertFalse(transaction.has("description"));
+        assertFalse(transaction.has("convertedAmount"));
+        assertFalse(json.has("summary"));
+        assertFalse(json.get("pageInfo").has("totalElements"));
+        assertFalse(json.has("sparse"));
+    }
+
+    @Test
+    void write_BatchOfPages_ShouldDecidePerPage() throws Exception {
+        TransactionBatchResponseDto batch = new TransactionBatchResponseDto(List.of(page(true), page(false)));
+        CBORMapper cborMapper = CBORMapper.builder().addModule(new JavaTimeModule()).addModule(new SparseFieldsetModule()).build();
+
+        JsonNode results = cborMapper.readTree(cborMapper.writeValueAsBytes(batch)).get("results");
+
+        assertFalse(results.get(0).get("transactions").get(0).has("description"));
+        assertTrue(results.get(1).get("transactions").get(0).has("description"));
+    }
+
+    private static TransactionPageDto page(boolean sparse) {
+        TransactionDto transaction = new TransactionDto();
+        transaction.setId("89d3o179-abcd-465b-o9ee-e2d5f6ofEld46");
+        transaction.setAmount(new BigDecimal("100.50"));
+        TransactionPageDto.PageInfo pageInfo = new TransactionPageDto.PageInfo(0, 10, null, null, true, true);
+        TransactionPageDto page = new TransactionPageDto(List.of(transaction), pageInfo, null);
+        page.setSparse(sparse);
+        return page;
+    }
+}
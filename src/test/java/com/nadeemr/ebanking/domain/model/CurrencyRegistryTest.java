@@ -0,0 +1,32 @@
+package com.nadeemr.ebanking.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    @Test
+    void resolve_ShouldReturnCanonicalInstance() {
+        CurrencyUnit eur = CurrencyRegistry.resolve("EUR");
+
+        assertSame(eur, CurrencyRegistry.resolve(new String("EUR")));
+        assertSame(eur, CurrencyUnit.of("EUR"));
+        assertSame(eur, CurrencyRegistry.byOrdinal(eur.getOrdinal()));
+        assertTrue(eur.getOrdinal() < CurrencyRegistry.size());
+    }
+
+    @Test
+    void resolve_ShouldCarryIsoMinorUnits() {
+        assertEquals(2, CurrencyRegistry.resolve("EUR").getMinorUnitDigits());
+        assertEquals(0, CurrencyRegistry.resolve("JPY").getMinorUnitDigits());
+        assertEquals(3, CurrencyRegistry.resolve("BHD").getMinorUnitDigits());
+    }
+
+    @Test
+    void resolve_UnknownCode_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.resolve("XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyRegistry.resolve("eur"));
+        assertTrue(CurrencyRegistry.find("XYZ").isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.nadeemr.ebanking.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyTotalsTest {
+
+    private static final List<CurrencyUnit> CURRENCIES = List.of(
+        CurrencyUnit.of("EUR"), CurrencyUnit.of("USD"), CurrencyUnit.of("GBP"), CurrencyUnit.of("CHF"), CurrencyUnit.of("JPY"));
+
+    @ParameterizedTest
+    @ValueSource(longs = {3L, 11L, 2024L})
+    void parallel_ShouldMatchSequentialTotals(long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < CurrencyTotals.PARALLEL_THRESHOLD * 2 + random.nextInt(1000); i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000L, random.nextInt(FixedPointMoney.SCALE + 1));
+            transactions.add(transaction(amount, CURRENCIES.get(random.nextInt(CURRENCIES.size()))));
+        }
+
+        CurrencyTotals sequential = CurrencyTotals.sequential(transactions);
+        CurrencyTotals parallel = CurrencyTotals.parallel(transactions);
+
+        assertEquals(sequential.getCurrencies(), parallel.getCurrencies());
+        for (CurrencyUnit currency : sequential.getCurrencies()) {
+            assertEquals(sequential.getCredit(currency), parallel.getCredit(currency));
+            assertEquals(sequential.getDebit(currency), parallel.getDebit(currency));
+        }
+    }
+
+    @Test
+    void parallel_Overflow_ShouldThrow() {
+        BigDecimal huge = BigDecimal.valueOf(Long.MAX_VALUE / (CurrencyTotals.PARALLEL_THRESHOLD / 2), FixedPointMoney.SCALE);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < CurrencyTotals.PARALLEL_THRESHOLD; i++) {
+            transactions.add(transaction(huge, CURRENCIES.get(0)));
+        }
+
+        assertThrows(ArithmeticException.class, () -> CurrencyTotals.sequential(transactions));
+        assertThrows(ArithmeticException.class, () -> CurrencyTotals.parallel(transactions));
+    }
+
+    private static Transaction transaction(BigDecimal amount, CurrencyUnit currency) {
+        return new Transaction(null, amount, currency, "CH9300762011623852957", LocalDate.of(2023, 10, 1),
+            "Generated", "P-0123456789");
+    }
+}
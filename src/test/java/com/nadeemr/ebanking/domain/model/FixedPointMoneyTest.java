@@ -0,0 +1,128 @@
+package com.nadeemr.ebanking.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointMoneyTest {
+
+    private static final CurrencyUnit EUR = CurrencyUnit.of("EUR");
+    private static final CurrencyUnit USD = CurrencyUnit.of("USD");
+    private static final CurrencyUnit GBP = CurrencyUnit.of("GBP");
+    private static final CurrencyUnit JPY = CurrencyUnit.of("JPY");
+    private static final List<CurrencyUnit> CURRENCIES = List.of(EUR, USD, GBP, CurrencyUnit.of("CHF"), JPY);
+
+    @Test
+    void toUnits_ShouldBeExactAtStoredScale() {
+        assertEquals(1_005_000L, FixedPointMoney.toUnits(new BigDecimal("100.50")));
+        assertEquals(-752_500L, FixedPointMoney.toUnits(new BigDecimal("-75.25")));
+        assertEquals(1L, FixedPointMoney.toUnits(new BigDecimal("0.0001")));
+        assertEquals(new BigDecimal("100.5000"), FixedPointMoney.of(new BigDecimal("100.5"), EUR).toBigDecimal());
+    }
+
+    @Test
+    void toUnits_MoreDecimalsThanStored_ShouldNotRoundSilently() {
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toUnits(new BigDecimal("0.00001")));
+    }
+
+    @Test
+    void add_Overflow_ShouldThrow() {
+        FixedPointMoney max = FixedPointMoney.ofUnits(Long.MAX_VALUE, EUR);
+        FixedPointMoney one = FixedPointMoney.ofUnits(1L, EUR);
+
+        assertThrows(ArithmeticException.class, () -> max.add(one));
+    }
+
+    @Test
+    void add_DifferentCurrencies_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+            () -> FixedPointMoney.zero(EUR).add(FixedPointMoney.zero(USD)));
+    }
+
+    @Test
+    void convert_ShouldRoundToTargetCurrencyMinorUnits() {
+        ExchangeRate gbpToEur = new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), LocalDate.now());
+        ExchangeRate eurToJpy = new ExchangeRate(EUR, JPY, new BigDecimal("145.50"), LocalDate.now());
+
+        assertEquals(new BigDecimal("114.86"),
+            FixedPointMoney.of(new BigDecimal("100.50"), GBP).convert(gbpToEur, RoundingMode.HALF_EVEN));
+        assertEquals(new BigDecimal("14623"),
+            FixedPointMoney.of(new BigDecimal("100.50"), EUR).convert(eurToJpy, RoundingMode.HALF_EVEN));
+    }
+
+    /**
+     * Property: converting per-currency fixed-point totals equals summing every
+     * converted amount with BigDecimal, exactly and after rounding to the cent.
+     */
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L, 2024L, 90210L})
+    void convertedTotals_ShouldAgreeWithBigDecimalPath(long seed) {
+        Random random = new Random(seed);
+
+        for (int run = 0; run < 200; run++) {
+            Map<CurrencyUnit, ExchangeRate> rates = randomRates(random);
+            Map<CurrencyUnit, FixedPointMoney> credits = new HashMap<>();
+            Map<CurrencyUnit, FixedPointMoney> debits = new HashMap<>();
+            BigDecimal expectedCredit = BigDecimal.ZERO;
+            BigDecimal expectedDebit = BigDecimal.ZERO;
+
+            int rows = random.nextInt(500);
+            for (int i = 0; i < rows; i++) {
+                CurrencyUnit currency = CURRENCIES.get(random.nextInt(CURRENCIES.size()));
+                BigDecimal amount = randomAmount(random);
+
+                BigDecimal converted = rates.get(currency).convert(amount);
+                if (converted.signum() >= 0) {
+                    expectedCredit = expectedCredit.add(converted);
+                    credits.merge(currency, FixedPointMoney.of(amount, currency), FixedPointMoney::add);
+                } else {
+                    expectedDebit = expectedDebit.add(converted.abs());
+                    debits.merge(currency, FixedPointMoney.of(amount.abs(), currency), FixedPointMoney::add);
+                }
+            }
+
+            BigDecimal actualCredit = convertTotals(credits, rates);
+            BigDecimal actualDebit = convertTotals(debits, rates);
+
+            assertEquals(0, expectedCredit.compareTo(actualCredit), "credit, seed " + seed + " run " + run);
+            assertEquals(0, expectedDebit.compareTo(actualDebit), "debit, seed " + seed + " run " + run);
+            assertEquals(expectedCredit.setScale(2, RoundingMode.HALF_EVEN), actualCredit.setScale(2, RoundingMode.HALF_EVEN));
+            assertEquals(expectedDebit.setScale(2, RoundingMode.HALF_EVEN), actualDebit.setScale(2, RoundingMode.HALF_EVEN));
+        }
+    }
+
+    private static BigDecimal convertTotals(Map<CurrencyUnit, FixedPointMoney> totals, Map<CurrencyUnit, ExchangeRate> rates) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (FixedPointMoney total : totals.values()) {
+            sum = sum.add(total.convert(rates.get(total.getCurrency())));
+        }
+        return sum;
+    }
+
+    private static Map<CurrencyUnit, ExchangeRate> randomRates(Random random) {
+        Map<CurrencyUnit, ExchangeRate> rates = new HashMap<>();
+        for (CurrencyUnit currency : CURRENCIES) {
+            BigDecimal rate = currency.equals(EUR)
+                ? BigDecimal.ONE
+                : BigDecimal.valueOf(1 + random.nextInt(200_000_000), 6);
+            rates.put(currency, new ExchangeRate(currency, EUR, rate, LocalDate.now()));
+        }
+        return rates;
+    }
+
+    private static BigDecimal randomAmount(Random random) {
+        int scale = random.nextInt(FixedPointMoney.SCALE + 1);
+        long unscaled = random.nextLong() % 1_000_000_000_000L;
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
@@ -0,0 +1,133 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.api.dto.TransactionPageDto;
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateStore;
+import com.nadeemr.ebanking.infrastructure.repository.ReactiveTransactionReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+
+    private static final String CUSTOMER_ID = "P-0123456789";
+    private static final LocalDate START = LocalDate.of(2023, 10, 1);
+    private static final LocalDate END = LocalDate.of(2023, 10, 31);
+
+    @Mock
+    private ReactiveTransactionReader transactionReader;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private ExchangeRateStore exchangeRateStore;
+
+    @InjectMocks
+    private ReactiveTransactionService reactiveTransactionService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTransactions_ShouldFetchOneRowPastThePageAndCountOnlyForTotals() {
+        TransactionSearchDto criteria = new TransactionSearchDto("2023-10", 1, 2, "EUR");
+        criteria.setFields("id,pageInfo.last");
+        TransactionPageDto expected = new TransactionPageDto();
+        when(transactionReader.findPage(CUSTOMER_ID, START, END, null, 2L, 3))
+                .thenReturn(Flux.just(transaction("t1"), transaction("t2"), transaction("t3")));
+        when(transactionService.toPage(eq(criteria), any(), isNull())).thenReturn(expected);
+        when(exchangeRateStore.isLoaded(any())).thenReturn(true);
+
+        StepVerifier.create(reactiveTransactionService.getTransactions(CUSTOMER_ID, criteria))
+                .expectNext(expected)
+                .verifyComplete();
+
+        ArgumentCaptor<Slice<Transaction>> page = ArgumentCaptor.forClass(Slice.class);
+        verify(transactionService).toPage(eq(criteria), page.capture(), isNull());
+        assertEquals(2, page.getValue().getNumberOfElements());
+        assertTrue(page.getValue().hasNext());
+        assertFalse(page.getValue() instanceof Page);
+        verify(transactionReader, never()).count(any(), any(), any(), any());
+        verify(transactionReader, never()).findMonth(any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTransactions_WithTotalsAndSummary_ShouldCountAndReadTheMonth() {
+        TransactionSearchDto criteria = new TransactionSearchDto("2023-10", 0, 20, "EUR");
+        criteria.setAccountIban("GB82WEST12345698765432");
+        List<Transaction> month = List.of(transaction("t1"));
+        TransactionPageDto expected = new TransactionPageDto();
+        when(transactionReader.findPage(CUSTOMER_ID, START, END, "GB82WEST12345698765432", 0L, 21))
+                .thenReturn(Flux.fromIterable(month));
+        when(transactionReader.count(CUSTOMER_ID, START, END, "GB82WEST12345698765432")).thenReturn(Mono.just(1L));
+        when(transactionReader.findMonth(CUSTOMER_ID, START, END, "GB82WEST12345698765432"))
+                .thenReturn(Flux.fromIterable(month));
+        when(transactionService.toPage(eq(criteria), any(), eq(month))).thenReturn(expected);
+        when(exchangeRateStore.isLoaded(any())).thenReturn(false);
+
+        StepVerifier.create(reactiveTransactionService.getTransactions(CUSTOMER_ID, criteria))
+                .expectNext(expected)
+                .verifyComplete();
+
+        ArgumentCaptor<Slice<Transaction>> page = ArgumentCaptor.forClass(Slice.class);
+        verify(transactionService).toPage(eq(criteria), page.capture(), eq(month));
+        assertEquals(1L, ((Page<Transaction>) page.getValue()).getTotalElements());
+    }
+
+    @Test
+    void getTransactions_RatesNotLoaded_ShouldAssembleThePageOffTheCallingThread() {
+        TransactionSearchDto criteria = new TransactionSearchDto("2023-10", 0, 20, "EUR");
+        criteria.setFields("id");
+        AtomicReference<Thread> assembledOn = new AtomicReference<>();
+        when(transactionReader.findPage(CUSTOMER_ID, START, END, null, 0L, 21))
+                .thenReturn(Flux.just(transaction("t1")));
+        when(transactionService.toPage(eq(criteria), any(), isNull())).thenAnswer(invocation -> {
+            assembledOn.set(Thread.currentThread());
+            return new TransactionPageDto();
+        });
+        when(exchangeRateStore.isLoaded(any())).thenReturn(false);
+
+        StepVerifier.create(reactiveTransactionService.getTransactions(CUSTOMER_ID, criteria))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertNotSame(Thread.currentThread(), assembledOn.get());
+        assertTrue(assembledOn.get().getName().startsWith("boundedElastic"), assembledOn.get().getName());
+    }
+
+    @Test
+    void getTransactions_InvalidMonth_ShouldFailWithoutQuerying() {
+        TransactionSearchDto criteria = new TransactionSearchDto("2023-13", 0, 20, "EUR");
+
+        StepVerifier.create(reactiveTransactionService.getTransactions(CUSTOMER_ID, criteria))
+                .expectError()
+                .verify();
+
+        verifyNoInteractions(transactionReader, transactionService);
+    }
+
+    private static Transaction transaction(String id) {
+        return new Transaction(id, new BigDecimal("10.00"), CurrencyRegistry.resolve("EUR"),
+                "GB82WEST12345698765432", LocalDate.of(2023, 10, 15), "Payment", CUSTOMER_ID);
+    }
+}
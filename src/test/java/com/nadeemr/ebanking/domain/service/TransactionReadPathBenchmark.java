@@ -0,0 +1,112 @@
+package com.nadeemr.ebanking.domain.service;
+
+import com.nadeemr.ebanking.api.dto.TransactionDto;
+import com.nadeemr.ebanking.api.dto.TransactionPageDto;
+import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.infrastructure.external.MockExchangeRateProvider;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import com.nadeemr.ebanking.util.TransactionMapper;
+import com.nadeemr.ebanking.util.TransactionMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of a transaction query once the rows are loaded: currency conversion of a page,
+ * the month summary (with the exact BigDecimal summary as a baseline) and the DTO mapping,
+ * over synthetic months. Run with {@code -prof gc} for the allocation rate:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransactionReadPathBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TransactionReadPathBenchmark {
+
+    private static final String BASE_CURRENCY = "EUR";
+    private static final YearMonth MONTH = YearMonth.of(2024, 10);
+
+    @Param({"100", "10000", "1000000"})
+    int rows;
+
+    private TransactionServiceImpl transactionService;
+    private TransactionMapper transactionMapper;
+    private MockExchangeRateProvider exchangeRateProvider;
+    private List<Transaction> month;
+    private SliceImpl<Transaction> monthSlice;
+    private TransactionSearchDto convertCriteria;
+    private TransactionSearchDto summaryCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionMapper = new TransactionMapperImpl();
+        exchangeRateProvider = new MockExchangeRateProvider(null, 0);
+        // Only the in-memory stages are measured, the repository and versions are never reached
+        transactionService = new TransactionServiceImpl(null, exchangeRateProvider, transactionMapper,
+                Runnable::run, null, new SimpleMeterRegistry(), Duration.ofMillis(500), Duration.ofSeconds(10));
+
+        month = TransactionDatasetGenerator.customerMonth("P-0123456789", MONTH, rows, 42);
+        monthSlice = new SliceImpl<>(month, PageRequest.of(0, rows), false);
+
+        convertCriteria = new TransactionSearchDto(MONTH.toString(), 0, rows, BASE_CURRENCY);
+        convertCriteria.setFields("transactions");
+        summaryCriteria = new TransactionSearchDto(MONTH.toString(), 0, rows, BASE_CURRENCY);
+        summaryCriteria.setFields("summary");
+    }
+
+    @Benchmark
+    public TransactionPageDto convertTransactionsWithExchangeRates() {
+        return transactionService.toPage(convertCriteria, monthSlice, null);
+    }
+
+    @Benchmark
+    public TransactionPageDto calculateSummary() {
+        return transactionService.toPage(summaryCriteria, null, month);
+    }
+
+    @Benchmark
+    public TransactionPageDto.TransactionSummary calculateSummaryExact() {
+        CurrencyUnit baseCurrency = CurrencyRegistry.resolve(BASE_CURRENCY);
+        return transactionService.calculateSummaryExact(month, baseCurrency, (base, currencies) -> {
+            ExchangeRate[] rates = new ExchangeRate[CurrencyRegistry.size()];
+            exchangeRateProvider.getExchangeRates(currencies, base, LocalDate.now())
+                    .forEach(rate -> rates[rate.getFromCurrency().getOrdinal()] = rate);
+            return rates;
+        });
+    }
+
+    @Benchmark
+    public void toDto(Blackhole blackhole) {
+        for (Transaction transaction : month) {
+            TransactionDto dto = transactionMapper.toDto(transaction);
+            blackhole.consume(dto);
+        }
+    }
+}
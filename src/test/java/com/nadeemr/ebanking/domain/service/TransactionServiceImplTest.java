@@ -2,27 +2,37 @@ package com.nadeemr.ebanking.domain.service;
 
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
 import com.nadeemr.ebanking.api.dto.TransactionSearchDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
 import com.nadeemr.ebanking.domain.model.ExchangeRate;
 import com.nadeemr.ebanking.domain.model.Transaction;
 import com.nadeemr.ebanking.infrastructure.external.ExchangeRateProvider;
 import com.nadeemr.ebanking.infrastructure.repository.TransactionRepository;
 import com.nadeemr.ebanking.util.TransactionMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,21 +50,32 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionMapper transactionMapper;
     
-    @InjectMocks
+    @Mock
+    private TransactionVersionService transactionVersionService;
+    
+    private SimpleMeterRegistry meterRegistry;
     private TransactionServiceImpl transactionService;
     
     private Transaction testTransaction1;
     private Transaction testTransaction2;
     private String customerId;
     
+    private static final CurrencyUnit EUR = CurrencyRegistry.resolve("EUR");
+    private static final CurrencyUnit GBP = CurrencyRegistry.resolve("GBP");
+    private static final CurrencyUnit USD = CurrencyRegistry.resolve("USD");
+    
     @BeforeEach
     void setUp() {
         customerId = "P-0123456789";
+        meterRegistry = new SimpleMeterRegistry();
+        transactionService = new TransactionServiceImpl(transactionRepository, exchangeRateProvider,
+            transactionMapper, Runnable::run, transactionVersionService, meterRegistry,
+            Duration.ofMillis(500), Duration.ofSeconds(10));
         
         testTransaction1 = new Transaction(
             "89d3o179-abcd-465b-o9ee-e2d5f6ofEld46",
             new BigDecimal("100.50"),
-            "GBP",
+            GBP,
             "GB82WEST12345698765432",
             LocalDate.of(2023, 10, 1),
             "Online payment GBP",
@@ -64,7 +85,7 @@ class TransactionServiceImplTest {
         testTransaction2 = new Transaction(
             "89d3o179-abcd-465b-o9ee-e2d5f6ofEld47",
             new BigDecimal("-75.25"),
-            "USD",
+            USD,
             "US64SVBKUS6S3300958879",
             LocalDate.of(2023, 10, 2),
             "ATM withdrawal USD",
@@ -80,8 +101,8 @@ class TransactionServiceImplTest {
         List<Transaction> transactions = Arrays.asList(testTransaction1, testTransaction2);
         Page<Transaction> transactionPage = new PageImpl<>(transactions, PageRequest.of(0, 10), 2);
         
-        ExchangeRate gbpToEur = new ExchangeRate("GBP", "EUR", new BigDecimal("1.1429"), LocalDate.now());
-        ExchangeRate usdToEur = new ExchangeRate("USD", "EUR", new BigDecimal("0.9132"), LocalDate.now());
+        ExchangeRate gbpToEur = new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), LocalDate.now());
+        ExchangeRate usdToEur = new ExchangeRate(USD, EUR, new BigDecimal("0.9132"), LocalDate.now());
         
         when(transactionRepository.findByCustomerIdAndValueDateBetween(
             eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
@@ -91,7 +112,7 @@ class TransactionServiceImplTest {
             eq(customerId), any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(transactions);
         
-        when(exchangeRateProvider.getExchangeRates(anyList(), eq("EUR"), any(LocalDate.class)))
+        when(exchangeRateProvider.getExchangeRates(anyList(), eq(EUR), any(LocalDate.class)))
             .thenReturn(Arrays.asList(gbpToEur, usdToEur));
         
         when(transactionMapper.toDto(any(Transaction.class)))
@@ -113,10 +134,13 @@ class TransactionServiceImplTest {
         
         assertNotNull(result.getSummary());
         assertEquals("EUR", result.getSummary().getBaseCurrency());
+        assertEquals(new BigDecimal("114.86"), result.getSummary().getTotalCredit());
+        assertEquals(new BigDecimal("68.72"), result.getSummary().getTotalDebit());
+        assertEquals(new BigDecimal("46.14"), result.getSummary().getNetAmount());
         
         verify(transactionRepository).findByCustomerIdAndValueDateBetween(
             eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class));
-        verify(exchangeRateProvider, times(2)).getExchangeRates(anyList(), eq("EUR"), any(LocalDate.class));
+        verify(exchangeRateProvider, times(2)).getExchangeRates(anyList(), eq(EUR), any(LocalDate.class));
     }
     
     @Test
@@ -136,7 +160,7 @@ class TransactionServiceImplTest {
             eq(customerId), any(LocalDate.class), any(LocalDate.class), eq("GB82WEST12345698765432")))
             .thenReturn(transactions);
         
-        when(exchangeRateProvider.getExchangeRates(anyList(), eq("EUR"), any(LocalDate.class)))
+        when(exchangeRateProvider.getExchangeRates(anyList(), eq(EUR), any(LocalDate.class)))
             .thenReturn(Collections.emptyList());
         
         when(transactionMapper.toDto(any(Transaction.class)))
@@ -168,7 +192,7 @@ class TransactionServiceImplTest {
             eq(customerId), any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(Collections.emptyList());
         
-        when(exchangeRateProvider.getExchangeRates(anyList(), eq("EUR"), any(LocalDate.class)))
+        when(exchangeRateProvider.getExchangeRates(anyList(), eq(EUR), any(LocalDate.class)))
             .thenReturn(Collections.emptyList());
         
         // When
@@ -178,16 +202,290 @@ class TransactionServiceImplTest {
         assertNotNull(result);
         assertEquals(0, result.getTransactions().size());
         assertEquals(0, result.getPageInfo().getTotalElements());
-        assertEquals(BigDecimal.ZERO, result.getSummary().getTotalCredit());
-        assertEquals(BigDecimal.ZERO, result.getSummary().getTotalDebit());
-        assertEquals(BigDecimal.ZERO, result.getSummary().getNetAmount());
+        assertEquals(new BigDecimal("0.00"), result.getSummary().getTotalCredit());
+        assertEquals(new BigDecimal("0.00"), result.getSummary().getTotalDebit());
+        assertEquals(new BigDecimal("0.00"), result.getSummary().getNetAmount());
+    }
+    
+    @Test
+    void getTransactions_ShouldRecordStagesAndRowsOfTheQuery() {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("transactions,summary");
+        
+        List<Transaction> transactions = Arrays.asList(testTransaction1, testTransaction2);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(transactions, PageRequest.of(0, 10), false));
+        when(transactionRepository.findAllByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(transactions);
+        when(transactionMapper.toDto(any(Transaction.class)))
+            .thenAnswer(invocation -> createMockTransactionDto(invocation.getArgument(0)));
+        
+        // When
+        transactionService.getTransactions(customerId, searchCriteria);
+        
+        // Then
+        for (String stage : List.of("month.parse", "version", "page.query", "summary.query", "fx.fetch",
+                "mapping", "summary.aggregation")) {
+            assertEquals(1, meterRegistry.get("transactions.query.stage").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(0, meterRegistry.get("transactions.query.stage").tag("stage", "page.count.query").timer().count());
+        assertEquals(2.0, meterRegistry.get("transactions.query.rows").tag("rows", "page").summary().totalAmount());
+        assertEquals(2.0, meterRegistry.get("transactions.query.rows").tag("rows", "month").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("transactions.query.slow").counter().count());
+    }
+    
+    @Test
+    void getTransactions_ShouldAddItsCostToTheCollectedQueryCost() {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("transactions,summary");
+        
+        List<Transaction> transactions = Arrays.asList(testTransaction1, testTransaction2);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(transactions, PageRequest.of(0, 10), false));
+        when(transactionRepository.findAllByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(transactions);
+        when(transactionMapper.toDto(any(Transaction.class)))
+            .thenAnswer(invocation -> createMockTransactionDto(invocation.getArgument(0)));
+        
+        // When
+        QueryCost cost;
+        try (QueryCost collected = QueryCost.collect()) {
+            transactionService.getTransactions(customerId, searchCriteria);
+            cost = collected;
+        }
+        transactionService.getTransactions(customerId, searchCriteria);
+        
+        // Then
+        assertEquals(1, cost.queries());
+        assertEquals(2, cost.pageRows());
+        assertEquals(2, cost.monthRows());
+        assertTrue(cost.databaseNanos() > 0);
+        assertTrue(cost.mappingNanos() > 0);
+        assertNull(QueryCost.current());
+    }
+
+    @Test
+    void getTransactions_SparseFields_ShouldSkipConversionSummaryAndCount() {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("id,amount,valueDate");
+        
+        List<Transaction> transactions = Arrays.asList(testTransaction1, testTransaction2);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(transactions, PageRequest.of(0, 10), false));
+        
+        when(transactionMapper.toDto(any(Transaction.class)))
+            .thenReturn(createMockTransactionDto(testTransaction1))
+            .thenReturn(createMockTransactionDto(testTransaction2));
+        
+        // When
+        TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria);
+        
+        // Then
+        assertEquals(2, result.getTransactions().size());
+        assertEquals(testTransaction1.getId(), result.getTransactions().get(0).getId());
+        assertEquals(new BigDecimal("100.50"), result.getTransactions().get(0).getAmount());
+        assertNull(result.getTransactions().get(0).getConvertedAmount());
+        assertNull(result.getTransactions().get(0).getDescription());
+        assertNull(result.getPageInfo());
+        assertNull(result.getSummary());
+        
+        verifyNoInteractions(exchangeRateProvider);
+        verify(transactionRepository, never()).findByCustomerIdAndValueDateBetween(
+            any(), any(), any(), any());
+        verify(transactionRepository, never()).findAllByCustomerIdAndValueDateBetween(any(), any(), any());
+    }
+    
+    @Test
+    void getTransactions_SummaryOnly_ShouldNotFetchPage() {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("summary");
+        
+        when(transactionRepository.findAllByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Collections.singletonList(testTransaction1));
+        when(exchangeRateProvider.getExchangeRates(anyList(), eq(EUR), any(LocalDate.class)))
+            .thenReturn(Collections.singletonList(new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), LocalDate.now())));
+        
+        // When
+        TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria);
+        
+        // Then
+        assertNull(result.getTransactions());
+        assertNull(result.getPageInfo());
+        assertEquals(new BigDecimal("114.86"), result.getSummary().getTotalCredit());
+        verify(transactionRepository, never()).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+        verify(transactionRepository, never()).findByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+        verifyNoInteractions(transactionMapper);
+    }
+    
+    @Test
+    void getTransactions_UnknownField_ShouldBeRejected() {
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("id,balance");
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionService.getTransactions(customerId, searchCriteria));
+    }
+    
+    @Test
+    void getTransactions_Batch_ShouldShareMonthScanRatesAndDuplicates() {
+        // Given
+        TransactionSearchDto firstPage = new TransactionSearchDto("2023-10", 0, 1, "EUR");
+        TransactionSearchDto accountSummary = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        accountSummary.setAccountIban("GB82WEST12345698765432");
+        accountSummary.setFields("summary");
+        TransactionSearchDto sameFirstPage = new TransactionSearchDto("2023-10", 0, 1, "EUR");
+        
+        when(transactionRepository.findAllByCustomerIdAndValueDateBetween(
+            eq(customerId), eq(LocalDate.of(2023, 10, 1)), eq(LocalDate.of(2023, 10, 31))))
+            .thenReturn(Arrays.asList(testTransaction1, testTransaction2));
+        when(exchangeRateProvider.getSupportedCurrencies()).thenReturn(new LinkedHashSet<>(Arrays.asList(GBP, USD)));
+        when(exchangeRateProvider.getExchangeRates(anyList(), eq(EUR), any(LocalDate.class)))
+            .thenReturn(Arrays.asList(
+                new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), LocalDate.now()),
+                new ExchangeRate(USD, EUR, new BigDecimal("0.9132"), LocalDate.now())));
+        when(transactionMapper.toDto(any(Transaction.class)))
+            .thenAnswer(invocation -> createMockTransactionDto(invocation.getArgument(0)));
+        
+        // When
+        List<TransactionPageDto> results = transactionService.getTransactions(customerId,
+            Arrays.asList(firstPage, accountSummary, sameFirstPage));
+        
+        // Then
+        assertEquals(3, results.size());
+        
+        TransactionPageDto page = results.get(0);
+        assertEquals(1, page.getTransactions().size());
+        assertEquals(testTransaction2.getId(), page.getTransactions().get(0).getId());
+        assertEquals(2, page.getPageInfo().getTotalElements());
+        assertFalse(page.getPageInfo().isLast());
+        assertEquals(new BigDecimal("46.14"), page.getSummary().getNetAmount());
+        
+        assertNull(results.get(1).getTransactions());
+        assertEquals(new BigDecimal("114.86"), results.get(1).getSummary().getTotalCredit());
+        assertEquals(new BigDecimal("0.00"), results.get(1).getSummary().getTotalDebit());
+        
+        assertSame(page, results.get(2));
+        
+        verify(transactionRepository, times(1)).findAllByCustomerIdAndValueDateBetween(any(), any(), any());
+        verify(transactionRepository, never()).findByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+        verify(transactionRepository, never()).findAllByCustomerIdAndValueDateBetweenAndAccountIban(
+            any(), any(), any(), any());
+        verify(exchangeRateProvider, times(1)).getExchangeRates(anyList(), eq(EUR), any(LocalDate.class));
+    }
+    
+    @Test
+    void getTransactions_IdenticalConcurrentCalls_ShouldShareOneComputation() throws Exception {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("id,amount");
+        TransactionSearchDto sameCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        sameCriteria.setFields("id,amount");
+        CountDownLatch release = new CountDownLatch(1);
+        
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return new SliceImpl<>(Arrays.asList(testTransaction1), PageRequest.of(0, 10), false);
+            });
+        when(transactionMapper.toDto(any(Transaction.class)))
+            .thenAnswer(invocation -> createMockTransactionDto(invocation.getArgument(0)));
+        
+        // When
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<TransactionPageDto> leader = callers.submit(
+                () -> transactionService.getTransactions(customerId, searchCriteria));
+            while (meterRegistry.get("transactions.query.inflight").gauge().value() < 1) {
+                Thread.sleep(1);
+            }
+            Future<TransactionPageDto> follower = callers.submit(
+                () -> transactionService.getTransactions(customerId, sameCriteria));
+            while (meterRegistry.get("transactions.query.calls").tag("outcome", "coalesced").counter().count() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            
+            // Then
+            assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+        
+        verify(transactionRepository, times(1)).findSliceByCustomerIdAndValueDateBetween(any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("transactions.query.calls").tag("outcome", "executed").counter().count());
+        assertEquals(0.0, meterRegistry.get("transactions.query.inflight").gauge().value());
+    }
+    
+    @Test
+    void getTransactions_CallAfterAWrite_ShouldNotShareTheComputationInFlight() throws Exception {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("id");
+        CountDownLatch release = new CountDownLatch(1);
+        
+        when(transactionVersionService.currentVersion(eq(customerId), any())).thenReturn(1L, 2L);
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10), false);
+            });
+        
+        // When
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<TransactionPageDto> beforeWrite = callers.submit(
+                () -> transactionService.getTransactions(customerId, searchCriteria));
+            Future<TransactionPageDto> afterWrite = callers.submit(
+                () -> transactionService.getTransactions(customerId, searchCriteria));
+            while (meterRegistry.get("transactions.query.inflight").gauge().value() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            
+            // Then
+            assertNotSame(beforeWrite.get(5, TimeUnit.SECONDS), afterWrite.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+        
+        assertEquals(0.0, meterRegistry.get("transactions.query.calls").tag("outcome", "coalesced").counter().count());
+    }
+    
+    @Test
+    void getTransactions_WithMonthVersion_ShouldNotReadTheVersionAgain() {
+        // Given
+        TransactionSearchDto searchCriteria = new TransactionSearchDto("2023-10", 0, 10, "EUR");
+        searchCriteria.setFields("id");
+        
+        when(transactionRepository.findSliceByCustomerIdAndValueDateBetween(
+            eq(customerId), any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10), false));
+        
+        // When
+        TransactionPageDto result = transactionService.getTransactions(customerId, searchCriteria, 3L);
+        
+        // Then
+        assertEquals(0, result.getTransactions().size());
+        verify(transactionVersionService, never()).currentVersion(any(), any());
     }
     
     private com.nadeemr.ebanking.api.dto.TransactionDto createMockTransactionDto(Transaction transaction) {
         com.nadeemr.ebanking.api.dto.TransactionDto dto = new com.nadeemr.ebanking.api.dto.TransactionDto();
         dto.setId(transaction.getId());
         dto.setAmount(transaction.getAmount());
-        dto.setCurrency(transaction.getCurrency());
+        dto.setCurrency(transaction.getCurrency().getCode());
         dto.setAccountIban(transaction.getAccountIban());
         dto.setValueDate(transaction.getValueDate());
         dto.setDescription(transaction.getDescription());
@@ -0,0 +1,69 @@
+package com.nadeemr.ebanking.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBytesCacheTest {
+
+    private static final String JSON = "application/json";
+    private static final YearMonth OCTOBER = YearMonth.of(2023, 10);
+    private static final YearMonth NOVEMBER = YearMonth.of(2023, 11);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseBytesCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Room for three 100 byte bodies with their overhead
+        cache = new ResponseBytesCache(3 * 356, 1024, meterRegistry);
+    }
+
+    @Test
+    void put_OverSizeBound_ShouldEvictTheLeastRecentlyUsed() {
+        cache.put("P-0123456789", OCTOBER, response("\"1-a\"", 100));
+        cache.put("P-0123456789", OCTOBER, response("\"1-b\"", 100));
+        cache.put("P-0123456789", OCTOBER, response("\"1-c\"", 100));
+        assertTrue(cache.get("P-0123456789", "\"1-a\"", JSON).isPresent());
+
+        cache.put("P-0123456789", OCTOBER, response("\"1-d\"", 100));
+
+        assertTrue(cache.get("P-0123456789", "\"1-a\"", JSON).isPresent());
+        assertTrue(cache.get("P-0123456789", "\"1-b\"", JSON).isEmpty());
+        assertEquals(3 * 356, cache.getSizeBytes());
+        assertEquals(1.0, meterRegistry.get("transactions.response.cache.evictions").counter().count());
+        assertEquals(2.0, meterRegistry.get("transactions.response.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("transactions.response.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_OverEntryBound_ShouldNotCache() {
+        cache.put("P-0123456789", OCTOBER, response("\"1-a\"", 2048));
+
+        assertTrue(cache.get("P-0123456789", "\"1-a\"", JSON).isEmpty());
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    void evict_ShouldDropOnlyTheCustomersMonth() {
+        cache.put("P-0123456789", OCTOBER, response("\"1-a\"", 100));
+        cache.put("P-0123456789", NOVEMBER, response("\"1-b\"", 100));
+        cache.put("P-9876543210", OCTOBER, response("\"1-a\"", 100));
+
+        cache.evict("P-0123456789", OCTOBER);
+
+        assertTrue(cache.get("P-0123456789", "\"1-a\"", JSON).isEmpty());
+        assertTrue(cache.get("P-0123456789", "\"1-b\"", JSON).isPresent());
+        assertTrue(cache.get("P-9876543210", "\"1-a\"", JSON).isPresent());
+        assertEquals(2 * 356, cache.getSizeBytes());
+    }
+
+    private static ResponseBytesCache.CachedResponse response(String eTag, int size) {
+        return new ResponseBytesCache.CachedResponse(new byte[size], eTag, JSON);
+    }
+}
@@ -0,0 +1,99 @@
+package com.nadeemr.ebanking.infrastructure.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCaptureFilterTest {
+
+    private static final String CUSTOMER_ID = "P-0123456789";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldCaptureQueryShapeWithoutCustomerOrIban() throws Exception {
+        Path file = directory.resolve("shapes.jsonl");
+        RequestShapeRecorder recorder = new RequestShapeRecorder(file, 100, objectMapper, new SimpleMeterRegistry());
+        RequestCaptureFilter filter = new RequestCaptureFilter(recorder, objectMapper, 1000);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(CUSTOMER_ID, null, List.of()));
+
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/transactions");
+        get.addParameter("yearMonth", "2024-10");
+        get.addParameter("size", "50");
+        get.addParameter("accountIban", "CH9300762011623852957");
+        get.addHeader("If-None-Match", "\"v1\"");
+        filter.doFilter(get, new MockHttpServletResponse(), (request, response) -> { });
+
+        MockHttpServletRequest search = new MockHttpServletRequest("POST", "/api/v1/transactions/search");
+        search.setContent("""
+                {"yearMonth":"2024-09","page":2,"size":20,"baseCurrency":"CHF","fields":"summary"}"""
+                .getBytes(StandardCharsets.UTF_8));
+        // The body is only captured once the controller has read it
+        filter.doFilter(search, new MockHttpServletResponse(), (request, response) -> request.getInputStream().readAllBytes());
+        recorder.close();
+
+        String captured = Files.readString(file);
+        assertFalse(captured.contains(CUSTOMER_ID));
+        assertFalse(captured.contains("CH9300762011623852957"));
+
+        List<RequestShape> shapes = captured.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, RequestShape.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(2, shapes.size());
+
+        RequestShape first = shapes.get(0);
+        assertEquals("GET /api/v1/transactions", first.endpoint());
+        assertTrue(first.conditional());
+        assertEquals(List.of(new RequestShape.Query("2024-10", null, 50, null, true, null)), first.queries());
+
+        RequestShape second = shapes.get(1);
+        assertEquals("POST /api/v1/transactions/search", second.endpoint());
+        assertFalse(second.conditional());
+        assertEquals(List.of(new RequestShape.Query("2024-09", 2, 20, "CHF", false, "summary")), second.queries());
+        assertEquals(first.customerBucket(), second.customerBucket());
+        assertTrue(first.offsetMicros() <= second.offsetMicros());
+    }
+
+    @Test
+    void customerBucket_ShouldBeStableAndInRange() throws Exception {
+        RequestShapeRecorder recorder = new RequestShapeRecorder(directory.resolve("shapes.jsonl"), 100,
+                objectMapper, new SimpleMeterRegistry());
+        RequestCaptureFilter filter = new RequestCaptureFilter(recorder, objectMapper, 10);
+
+        for (int i = 0; i < 100; i++) {
+            String customerId = String.format("P-%010d", i);
+            int bucket = filter.customerBucket(customerId);
+            assertTrue(bucket >= 0 && bucket < 10);
+            assertEquals(bucket, filter.customerBucket(customerId));
+        }
+        recorder.close();
+    }
+}
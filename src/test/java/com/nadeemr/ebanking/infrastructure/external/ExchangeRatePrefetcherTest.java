@@ -0,0 +1,108 @@
+package com.nadeemr.ebanking.infrastructure.external;
+
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRatePrefetcherTest {
+
+    private static final CurrencyUnit EUR = CurrencyUnit.of("EUR");
+    private static final CurrencyUnit GBP = CurrencyUnit.of("GBP");
+
+    @Mock
+    private ExchangeRateProvider upstream;
+
+    private ExchangeRateStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeRatePrefetcher prefetcher;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        store = new ExchangeRateStore();
+        meterRegistry = new SimpleMeterRegistry();
+        prefetcher = new ExchangeRatePrefetcher(upstream, store, meterRegistry, true, false);
+        today = LocalDate.now();
+
+        when(upstream.getSupportedCurrencies()).thenReturn(Set.of(EUR, GBP));
+    }
+
+    @Test
+    void warmUp_ShouldLoadAllPairsAndReportReady() {
+        // Given
+        ExchangeRate gbpToEur = new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), today);
+        ExchangeRate eurToGbp = new ExchangeRate(EUR, GBP, new BigDecimal("0.8750"), today);
+        when(upstream.getExchangeRates(anyList(), eq(EUR), eq(today))).thenReturn(Collections.singletonList(gbpToEur));
+        when(upstream.getExchangeRates(anyList(), eq(GBP), eq(today))).thenReturn(Collections.singletonList(eurToGbp));
+
+        ExchangeRatesHealthIndicator health = new ExchangeRatesHealthIndicator(store);
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+
+        // When
+        prefetcher.warmUp();
+
+        // Then
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals(2, store.get(today).orElseThrow().size());
+        assertEquals(1, meterRegistry.get("fx.prefetch.duration").timer().count());
+        assertFalse(Double.isNaN(meterRegistry.get("fx.rates.age.seconds").gauge().value()));
+    }
+
+    @Test
+    void prefetchedProvider_ShouldServeFromStoreWithoutCallingUpstream() {
+        // Given
+        ExchangeRate gbpToEur = new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), today);
+        when(upstream.getExchangeRates(anyList(), any(CurrencyUnit.class), eq(today))).thenReturn(Collections.singletonList(gbpToEur));
+        prefetcher.refresh(today);
+        clearInvocations(upstream);
+
+        PrefetchedExchangeRateProvider provider = new PrefetchedExchangeRateProvider(upstream, store, meterRegistry);
+
+        // When
+        List<ExchangeRate> rates = provider.getExchangeRates(Arrays.asList(GBP, EUR), EUR, today);
+
+        // Then
+        assertEquals(2, rates.size());
+        assertEquals(new BigDecimal("1.1429"), rates.get(0).getRate());
+        assertEquals(BigDecimal.ONE, rates.get(1).getRate());
+        verify(upstream, never()).getExchangeRates(anyList(), any(CurrencyUnit.class), any(LocalDate.class));
+        assertEquals(0.0, meterRegistry.get("fx.store.misses").counter().count());
+    }
+
+    @Test
+    void refresh_UpstreamFailure_ShouldKeepPreviousSnapshotAndCountFailure() {
+        // Given
+        ExchangeRate gbpToEur = new ExchangeRate(GBP, EUR, new BigDecimal("1.1429"), today);
+        when(upstream.getExchangeRates(anyList(), any(CurrencyUnit.class), eq(today)))
+            .thenReturn(Collections.singletonList(gbpToEur))
+            .thenReturn(Collections.singletonList(gbpToEur))
+            .thenThrow(new RuntimeException("Exchange rate service unavailable"));
+        prefetcher.refresh(today);
+
+        // When
+        boolean refreshed = prefetcher.refresh(today);
+
+        // Then
+        assertFalse(refreshed);
+        assertTrue(store.isLoaded(today));
+        assertEquals(1.0, meterRegistry.get("fx.prefetch.failures").counter().count());
+    }
+}
@@ -0,0 +1,111 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcStatisticsDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcStatistics statistics;
+    private JdbcStatisticsDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:jdbc-statistics-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new JdbcStatistics(2, Duration.ofSeconds(10), 3, meterRegistry);
+        dataSource = new JdbcStatisticsDataSource(h2, () -> statistics);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE t (id INT PRIMARY KEY, customer VARCHAR(20), booked DATE)");
+            statement.executeUpdate("INSERT INTO t VALUES (1, 'a', DATE '2024-10-01'), (2, 'a', DATE '2024-10-02'), "
+                    + "(3, 'b', DATE '2024-10-03')");
+        }
+        statistics.reset();
+    }
+
+    @Test
+    void select_ShouldRecordSqlBindShapeAndRowsWithoutValues() throws Exception {
+        RequestStatements request = statistics.beginRequest("GET /api/v1/transactions");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id FROM t\n  WHERE customer = ? AND booked >= ?")) {
+            statement.setString(1, "a");
+            statement.setObject(2, LocalDate.of(2024, 10, 1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        } finally {
+            statistics.endRequest(request);
+        }
+
+        assertEquals(1, request.statementCount());
+        assertEquals(2, request.rows());
+        assertEquals(1, request.connections());
+        RequestStatements.ExecutedStatement executed = request.statements().get(0);
+        assertEquals("SELECT id FROM t WHERE customer = ? AND booked >= ?", executed.sql());
+        assertEquals("(String, LocalDate)", executed.bindShape());
+
+        List<JdbcStatistics.SlowStatement> slowest = statistics.slowest();
+        assertEquals(1, slowest.size());
+        assertEquals("(String, LocalDate)", slowest.get(0).bindShape());
+        assertEquals(1, statistics.topStatements(10).get(0).executions());
+        assertEquals(1, meterRegistry.get("jdbc.statements").tag("operation", "select").timer().count());
+        assertEquals(1, meterRegistry.get("jdbc.request.statements").summary().count());
+        assertEquals(2.0, meterRegistry.get("jdbc.request.rows").summary().totalAmount());
+    }
+
+    @Test
+    void repeatedStatement_ShouldCountRequestAsLikelyNPlusOne() throws Exception {
+        RequestStatements request = statistics.beginRequest("GET /api/v1/transactions");
+        try (Connection connection = dataSource.getConnection()) {
+            for (int id = 1; id <= 3; id++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT customer FROM t WHERE id = ?")) {
+                    statement.setInt(1, id);
+                    statement.executeQuery().close();
+                }
+            }
+        } finally {
+            statistics.endRequest(request);
+        }
+
+        assertEquals(Map.of("SELECT customer FROM t WHERE id = ?", 3), request.executionsBySql());
+        assertEquals(1.0, meterRegistry.get("jdbc.request.repeated").counter().count());
+        assertEquals(2, statistics.slowest().size());
+    }
+
+    @Test
+    void propagateRequest_ShouldCountStatementsOfOtherThreadsForTheRequest() throws Exception {
+        RequestStatements request = statistics.beginRequest("POST /api/v1/transactions/batch");
+        Runnable subQuery = statistics.propagateRequest(() -> {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.executeQuery("SELECT COUNT(*) FROM t").close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread thread = new Thread(subQuery);
+        thread.start();
+        thread.join();
+        statistics.endRequest(request);
+
+        assertEquals(1, request.statementCount());
+        assertEquals(1, statistics.requests());
+    }
+}
@@ -0,0 +1,59 @@
+package com.nadeemr.ebanking.infrastructure.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a test when a request issues more statements than expected. Every request that ends
+ * while the budget is open is checked when it is closed, and the failure lists the statements
+ * of each request over the budget:
+ * <pre>
+ * try (StatementBudget budget = StatementBudget.perRequest(jdbcStatistics, 3)) {
+ *     mockMvc.perform(get("/api/v1/transactions")...);
+ * }
+ * </pre>
+ */
+public final class StatementBudget implements AutoCloseable {
+
+    private final int maxStatements;
+    private final List<RequestStatements> requests = new ArrayList<>();
+    private final AutoCloseable registration;
+
+    private StatementBudget(JdbcStatistics statistics, int maxStatements) {
+        this.maxStatements = maxStatements;
+        this.registration = statistics.onRequestEnd(this::requestEnded);
+    }
+
+    public static StatementBudget perRequest(JdbcStatistics statistics, int maxStatements) {
+        return new StatementBudget(statistics, maxStatements);
+    }
+
+    private synchronized void requestEnded(RequestStatements request) {
+        requests.add(request);
+    }
+
+    /**
+     * The requests that ended so far
+     */
+    public synchronized List<RequestStatements> requests() {
+        return List.copyOf(requests);
+    }
+
+    @Override
+    public void close() throws Exception {
+        registration.close();
+        List<RequestStatements> ended = requests();
+        assertTrue(!ended.isEmpty(), "No request ended while the statement budget was open");
+        List<RequestStatements> over = ended.stream()
+                .filter(request -> request.statementCount() > maxStatements)
+                .toList();
+        if (!over.isEmpty()) {
+            fail(over.size() + " of " + ended.size() + " requests ran more than " + maxStatements + " statements:\n"
+                    + over.stream().map(RequestStatements::toString).collect(Collectors.joining("\n")));
+        }
+    }
+}
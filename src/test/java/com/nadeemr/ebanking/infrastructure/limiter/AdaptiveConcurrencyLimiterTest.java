@@ -0,0 +1,82 @@
+package com.nadeemr.ebanking.infrastructure.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(4, 2, 50, 0.5, 1.5, 0.2, meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_OverLimit_ShouldRejectAsOverloaded() {
+        for (int i = 0; i < 4; i++) {
+            assertNull(limiter.tryAcquire("P-000000000" + i));
+        }
+
+        assertEquals(AdaptiveConcurrencyLimiter.Rejection.OVERLOADED, limiter.tryAcquire("P-0000000009"));
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("transactions.limiter.rejected").tag("reason", "overloaded").counter().count());
+    }
+
+    @Test
+    void tryAcquire_OverCustomerShare_ShouldRejectOnlyThatCustomer() {
+        assertNull(limiter.tryAcquire("P-0123456789"));
+        assertNull(limiter.tryAcquire("P-0123456789"));
+
+        assertEquals(AdaptiveConcurrencyLimiter.Rejection.CUSTOMER_SHARE, limiter.tryAcquire("P-0123456789"));
+        assertNull(limiter.tryAcquire("P-9876543210"));
+        assertEquals(3, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("transactions.limiter.rejected").tag("reason", "customer_share").counter().count());
+    }
+
+    @Test
+    void release_ShouldGrowTheLimitWhileLatencyIsSteadyAndShrinkItWhenRequestsSlowDown() {
+        runAtLimit(FAST, 50);
+        int grownLimit = limiter.getLimit();
+        assertTrue(grownLimit > 4, "limit should grow while latency is steady, was " + grownLimit);
+
+        runAtLimit(SLOW, 10);
+        assertTrue(limiter.getLimit() < grownLimit / 2, "limit should shrink when latency rises, was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals((double) limiter.getLimit(), meterRegistry.get("transactions.limiter.limit").gauge().value());
+    }
+
+    @Test
+    void release_WithoutSample_ShouldNotMoveTheLimit() {
+        assertNull(limiter.tryAcquire("P-0123456789"));
+        limiter.release("P-0123456789", -1);
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Keep the limiter full for a number of rounds, every request taking the given latency
+     */
+    private void runAtLimit(long latencyNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire("P-" + String.format("%010d", admitted)) == null) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release("P-" + String.format("%010d", i), latencyNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.infrastructure.config.KafkaConfig;
+import com.nadeemr.ebanking.infrastructure.external.ExchangeRateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the rate consumer against an embedded broker: two instances each get every update,
+ * including those published before they started, and neither leaves a consumer group behind.
+ */
+class ExchangeRateEventConsumerTest {
+
+    private static final String TOPIC = "exchange-rates";
+    private static final LocalDate DATE = LocalDate.of(2023, 10, 1);
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaBroker(1, false, 1, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void consume_EveryInstance_ShouldReplayTheTopicWithoutAConsumerGroup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        publish(objectMapper, new ExchangeRateEvent(CurrencyRegistry.resolve("EUR"), DATE,
+                Map.of("USD", new BigDecimal("0.9132"))));
+
+        try (AnnotationConfigApplicationContext first = consumer(objectMapper);
+             AnnotationConfigApplicationContext second = consumer(objectMapper)) {
+            publish(objectMapper, new ExchangeRateEvent(CurrencyRegistry.resolve("EUR"), DATE,
+                    Map.of("GBP", new BigDecimal("1.1429"))));
+
+            for (AnnotationConfigApplicationContext context : new AnnotationConfigApplicationContext[]{first, second}) {
+                ExchangeRateStore store = context.getBean(ExchangeRateStore.class);
+                awaitRates(store, 2);
+                assertTrue(store.get(DATE).orElseThrow()
+                        .find(CurrencyRegistry.resolve("USD"), CurrencyRegistry.resolve("EUR")).isPresent());
+            }
+
+            try (AdminClient admin = AdminClient.create(Map.of(
+                    AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+                assertTrue(admin.listConsumerGroups().all().get().isEmpty());
+            }
+        }
+    }
+
+    private static AnnotationConfigApplicationContext consumer(ObjectMapper objectMapper) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        TestPropertyValues.of(
+                "app.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "app.kafka.consumer-group=unused",
+                "app.kafka.exchange-rate-topic=" + TOPIC,
+                "app.fx.push.enabled=true"
+        ).applyTo(context);
+        context.registerBean(ObjectMapper.class, () -> objectMapper);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(KafkaConfig.class, ExchangeRateStore.class, ExchangeRateEventConsumer.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void publish(ObjectMapper objectMapper, ExchangeRateEvent event) throws Exception {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            producer.send(new ProducerRecord<>(TOPIC, event.getToCurrency().getCode(),
+                    objectMapper.writeValueAsString(event))).get();
+        }
+    }
+
+    private static void awaitRates(ExchangeRateStore store, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (store.get(DATE).map(snapshot -> snapshot.size()).orElse(0) < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Rates not applied: " + store.get(DATE));
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.api.dto.TransactionFeedEventDto;
+import com.nadeemr.ebanking.infrastructure.config.KafkaConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs two instances' relays against an embedded broker: a change published by one instance
+ * reaches the feeds of both.
+ */
+class TransactionFeedRelayTest {
+
+    private static final String TOPIC = "transaction-feed";
+    private static final String CUSTOMER_ID = "P-0123456789";
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaBroker(1, false, 1, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void publish_ShouldReachTheFeedOfEveryInstance() throws Exception {
+        TransactionFeed publishingFeed = mock(TransactionFeed.class);
+        TransactionFeed otherFeed = mock(TransactionFeed.class);
+        TransactionFeedEventDto event = new TransactionFeedEventDto("CREATE", "t1", "GB82WEST12345698765432", "2023-10");
+
+        try (AnnotationConfigApplicationContext publishing = instance(publishingFeed);
+             AnnotationConfigApplicationContext other = instance(otherFeed)) {
+            TransactionFeedRelay relay = publishing.getBean(TransactionFeedRelay.class);
+
+            // The relays read from the end of the topic, so publish until both have their position
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (mockingDetails(publishingFeed).getInvocations().isEmpty()
+                    || mockingDetails(otherFeed).getInvocations().isEmpty()) {
+                assertTrue(System.currentTimeMillis() < deadline, "Feed notification not relayed to both instances");
+                relay.publish(CUSTOMER_ID, event);
+                Thread.sleep(200);
+            }
+        }
+
+        for (TransactionFeed feed : new TransactionFeed[]{publishingFeed, otherFeed}) {
+            verify(feed, atLeastOnce()).publish(eq(CUSTOMER_ID), argThat(relayed ->
+                    relayed.getEventType().equals("CREATE") && relayed.getTransactionId().equals("t1")
+                            && relayed.getYearMonth().equals("2023-10")));
+        }
+    }
+
+    private static AnnotationConfigApplicationContext instance(TransactionFeed transactionFeed) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        TestPropertyValues.of(
+                "app.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "app.kafka.consumer-group=unused",
+                "app.kafka.feed-topic=" + TOPIC
+        ).applyTo(context);
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(TransactionFeed.class, () -> transactionFeed);
+        context.register(KafkaConfig.class, TransactionFeedRelay.class);
+        context.refresh();
+        return context;
+    }
+}
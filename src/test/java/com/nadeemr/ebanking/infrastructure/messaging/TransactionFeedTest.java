@@ -0,0 +1,85 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.nadeemr.ebanking.api.dto.TransactionFeedEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionFeedTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Senders never run, so queued events stay queued like they would for a stalled client
+        feed = new TransactionFeed(task -> { }, meterRegistry, 4, 8, 2, 60_000, 10_000);
+    }
+
+    @Test
+    void publish_ShouldQueueForTheCustomersSubscribersOnly() {
+        feed.subscribe("P-0123456789", null);
+        feed.subscribe("P-9876543210", null);
+
+        feed.publish("P-0123456789", event("t1"));
+
+        assertEquals(2, feed.getSubscriberCount());
+        assertEquals(1, feed.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("transactions.feed.queue.depth").gauge().value());
+    }
+
+    @Test
+    void publish_SlowSubscriber_ShouldBeDroppedInsteadOfBuffered() {
+        feed.subscribe("P-0123456789", null);
+
+        for (int i = 0; i < 5; i++) {
+            feed.publish("P-0123456789", event("t" + i));
+        }
+
+        assertEquals(0, feed.getSubscriberCount());
+        assertEquals(0, feed.getQueueDepth());
+        assertEquals(1.0, meterRegistry.get("transactions.feed.dropped").counter().count());
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEventsOfTheCustomer() {
+        feed.publish("P-0123456789", event("t1"));
+        feed.publish("P-9876543210", event("t2"));
+        feed.publish("P-0123456789", event("t3"));
+        feed.publish("P-0123456789", event("t4"));
+
+        feed.subscribe("P-0123456789", feed.eventId(1));
+
+        assertEquals(2, feed.getQueueDepth());
+    }
+
+    @Test
+    void subscribe_WithUnknownOrEvictedLastEventId_ShouldResync() {
+        for (int i = 0; i < 10; i++) {
+            feed.publish("P-0123456789", event("t" + i));
+        }
+
+        feed.subscribe("P-0123456789", feed.eventId(1));
+        feed.subscribe("P-9876543210", "other-instance:10");
+
+        assertEquals(2, feed.getQueueDepth());
+    }
+
+    @Test
+    void subscribe_OverLimit_ShouldBeRejected() {
+        feed.subscribe("P-0123456789", null);
+        feed.subscribe("P-0123456789", null);
+
+        assertThrows(RejectedExecutionException.class, () -> feed.subscribe("P-0123456789", null));
+        assertEquals(2, feed.getSubscriberCount());
+    }
+
+    private static TransactionFeedEventDto event(String transactionId) {
+        return new TransactionFeedEventDto("CREATE", transactionId, "GB82WEST12345698765432", "2023-10");
+    }
+}
@@ -0,0 +1,189 @@
+package com.nadeemr.ebanking.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import com.nadeemr.ebanking.infrastructure.repository.TransactionRepository;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event work of the Kafka ingest path: JSON parsing, mapping to the entity, Bean Validation,
+ * the persistence call against an in-memory H2, and the whole listener method. Each runs for one
+ * event and for a batch of 100 per operation; a batch is persisted in one database transaction,
+ * while the listener still commits per event. Run with {@code -prof gc} for the allocation rate:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransactionIngestBenchmark -prof gc"
+ * </pre>
+ * Application logging is at WARN, so the per-event INFO lines are not part of the numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionIngestBenchmark {
+
+    private static final String[] CURRENCIES = {"CHF", "EUR", "USD", "GBP", "JPY"};
+    private static final String[] IBANS = {"CH9300762011623852957", "DE89370400440532013000", "GB82WEST12345698765432"};
+    private static final Acknowledgment NO_ACK = () -> { };
+
+    @Param({"1", "100"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private TransactionEventConsumer consumer;
+    private TransactionRepository transactionRepository;
+    private Validator validator;
+    private TransactionTemplate transactionTemplate;
+
+    private List<String> payloads;
+    private List<TransactionEvent> events;
+    private List<Transaction> transactions;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=WARN",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:ingest-benchmark;DB_CLOSE_DELAY=-1");
+        // Events are handed to the listener directly, no broker is involved
+        context.getBean(KafkaListenerEndpointRegistry.class).stop();
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        consumer = context.getBean(TransactionEventConsumer.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        validator = context.getBean(Validator.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        payloads = new ArrayList<>(batchSize);
+        events = new ArrayList<>(batchSize);
+        transactions = new ArrayList<>(batchSize);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < batchSize; i++) {
+            String payload = payload("parsed-" + i, random);
+            TransactionEvent event = objectMapper.readValue(payload, TransactionEvent.class);
+            payloads.add(payload);
+            events.add(event);
+            transactions.add(consumer.mapToTransaction(event));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void readValue(Blackhole blackhole) throws Exception {
+        for (String payload : payloads) {
+            blackhole.consume(objectMapper.readValue(payload, TransactionEvent.class));
+        }
+    }
+
+    @Benchmark
+    public void mapToTransaction(Blackhole blackhole) {
+        for (TransactionEvent event : events) {
+            blackhole.consume(consumer.mapToTransaction(event));
+        }
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(validator.validate(transaction));
+        }
+    }
+
+    /**
+     * Inserts new rows, the table grows over the run like it does in production
+     */
+    @Benchmark
+    public void persist() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Transaction template : transactions) {
+                Transaction transaction = new Transaction(nextId(), template.getAmount(), template.getCurrency(),
+                        template.getAccountIban(), template.getValueDate(), template.getDescription(),
+                        template.getCustomerId());
+                transactionRepository.save(transaction);
+            }
+        });
+    }
+
+    @Benchmark
+    public void consume(FreshEvents fresh) {
+        for (String payload : fresh.payloads) {
+            consumer.consumeTransactionEvent(payload, "key", "transaction-events", 0, 0,
+                    System.currentTimeMillis(), NO_ACK);
+        }
+    }
+
+    /**
+     * Payloads of events not seen before, so that every listener call creates a transaction
+     */
+    @State(Scope.Thread)
+    public static class FreshEvents {
+
+        private final SplittableRandom random = new SplittableRandom(7);
+        List<String> payloads;
+
+        @Setup(Level.Invocation)
+        public void setUp(TransactionIngestBenchmark benchmark) {
+            payloads = new ArrayList<>(benchmark.batchSize);
+            for (int i = 0; i < benchmark.batchSize; i++) {
+                payloads.add(payload(benchmark.nextId(), random));
+            }
+        }
+    }
+
+    private String nextId() {
+        return "ingest-" + sequence++;
+    }
+
+    private static String payload(String transactionId, SplittableRandom random) {
+        String currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(-50_000, 250_000), 2)
+                .setScale(CurrencyRegistry.resolve(currency).getMinorUnitDigits(), RoundingMode.HALF_EVEN);
+        LocalDate valueDate = LocalDate.of(2024, 10, 1).plusDays(random.nextInt(31));
+        return """
+                {"transactionId":"%s","amount":%s,"currency":"%s","accountIban":"%s","valueDate":"%s",\
+                "description":"Card payment","customerId":"P-0123456789","eventType":"CREATE",\
+                "timestamp":"2024-10-31T12:00:00Z"}"""
+                .formatted(transactionId, amount.toPlainString(), currency, IBANS[random.nextInt(IBANS.length)], valueDate);
+    }
+}
@@ -0,0 +1,75 @@
+package com.nadeemr.ebanking.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenValidatorTest {
+
+    private static final String SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        validator = new JwtTokenValidator(SECRET, 2, meterRegistry);
+    }
+
+    @Test
+    void validate_SameTokenTwice_ShouldVerifyItOnce() {
+        String token = token("P-0123456789", SECRET);
+
+        Authentication first = validator.validateTokenAndGetAuthentication(token);
+        Authentication second = validator.validateTokenAndGetAuthentication(token);
+
+        assertEquals("P-0123456789", second.getName());
+        assertTrue(second.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER")));
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("jwt.validation.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1L, meterRegistry.get("jwt.validation.duration").timer().count());
+    }
+
+    @Test
+    void validate_InvalidSignature_ShouldThrowEveryTime() {
+        String forged = token("P-0123456789", "anotherSecretKey1234567890123456789012345678901234567890123");
+
+        assertThrows(RuntimeException.class, () -> validator.validateTokenAndGetAuthentication(forged));
+        assertThrows(RuntimeException.class, () -> validator.validateTokenAndGetAuthentication(forged));
+        assertEquals(0, validator.getCacheSize());
+    }
+
+    @Test
+    void validate_OverCacheSize_ShouldEvictTheLeastRecentlyUsed() {
+        validator.validateTokenAndGetAuthentication(token("P-0000000001", SECRET));
+        validator.validateTokenAndGetAuthentication(token("P-0000000002", SECRET));
+        validator.validateTokenAndGetAuthentication(token("P-0000000003", SECRET));
+
+        assertEquals(2, validator.getCacheSize());
+    }
+
+    @Test
+    void validate_SubjectNotACustomer_ShouldReturnNull() {
+        assertNull(validator.validateTokenAndGetAuthentication(token("admin", SECRET)));
+    }
+
+    private static String token(String subject, String secret) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("role", "CUSTOMER")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+    }
+}
@@ -0,0 +1,130 @@
+package com.nadeemr.ebanking.infrastructure.security;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.FilterChainProxy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authentication per request: the JWT filter on its own and the whole Spring Security
+ * filter chain (request matchers, security context, authorization) in front of a transactions
+ * request. Token minting is measured by {@code AuthControllerBenchmark}. Valid tokens are
+ * measured with and without the validated token cache ({@code cacheSize=0}); expired and
+ * malformed tokens are never cached.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="SecurityFilterBenchmark -prof gc"
+ * </pre>
+ * Application logging is off, so the warnings logged for rejected tokens are not part of the numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityFilterBenchmark {
+
+    private static final String JWT_SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+    private static final String CUSTOMER_ID = "P-0123456789";
+    private static final FilterChain END_OF_CHAIN = (request, response) -> { };
+
+    @Param({"valid", "expired", "malformed"})
+    String token;
+
+    @Param({"0", "10000"})
+    int cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private FilterChainProxy securityFilterChain;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=OFF",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:security-benchmark;DB_CLOSE_DELAY=-1",
+                        "--app.jwt.cache-size=" + cacheSize);
+        context.getBean(KafkaListenerEndpointRegistry.class).stop();
+
+        jwtAuthenticationFilter = context.getBean(JwtAuthenticationFilter.class);
+        securityFilterChain = context.getBean(FilterChainProxy.class);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/transactions");
+        request.setServletPath("/api/v1/transactions");
+        request.addParameter("yearMonth", "2024-10");
+        request.addHeader("Authorization", "Bearer " + bearerToken(token));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jwtAuthenticationFilter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtAuthenticationFilter.doFilter(request, response, END_OF_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse securityFilterChain() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityFilterChain.doFilter(request, response, END_OF_CHAIN);
+        return response;
+    }
+
+    private static String bearerToken(String kind) {
+        long now = System.currentTimeMillis();
+        return switch (kind) {
+            case "valid" -> token(new Date(now), new Date(now + TimeUnit.HOURS.toMillis(24)));
+            case "expired" -> token(new Date(now - TimeUnit.HOURS.toMillis(25)), new Date(now - TimeUnit.HOURS.toMillis(1)));
+            case "malformed" -> "eyJhbGciOiJIUzM4NCJ9.not-a-payload.not-a-signature";
+            default -> throw new IllegalArgumentException("Unknown token kind " + kind);
+        };
+    }
+
+    private static String token(Date issuedAt, Date expiration) {
+        return Jwts.builder()
+                .setSubject(CUSTOMER_ID)
+                .claim("role", "CUSTOMER")
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
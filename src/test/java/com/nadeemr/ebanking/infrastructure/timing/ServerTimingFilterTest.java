@@ -0,0 +1,77 @@
+package com.nadeemr.ebanking.infrastructure.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter("X-Server-Timing", "ADMIN", null);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void requestAskingForTimings_ShouldGetHeaderWithSerializationAndUnchangedBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/transactions");
+        request.addHeader("X-Server-Timing", "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            ServerTiming.current().orElseThrow().serialized(2_500_000, false);
+            res.getOutputStream().write("{\"transactions\":[]}".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+        });
+
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur="), header);
+        assertTrue(header.contains("serialize;dur=2.500"), header);
+        assertTrue(header.contains("rows;desc=\"page=0 month=0\""), header);
+        assertTrue(header.contains("total;dur="), header);
+        assertFalse(header.contains("count;"), header);
+        assertEquals("{\"transactions\":[]}", response.getContentAsString());
+    }
+
+    @Test
+    void adminToken_ShouldGetHeaderWithoutAskingForIt() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "P-0123456789", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/transactions"), response, (req, res) -> { });
+
+        assertNotNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    void otherRequests_ShouldPassThroughUnbuffered() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "P-0123456789", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/transactions");
+        request.addHeader("X-Server-Timing", "false");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            assertSame(response, res);
+            assertNull(req.getAttribute(ServerTiming.ATTRIBUTE));
+        });
+
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+}
@@ -0,0 +1,190 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end ingest benchmark: publishes transaction events to an embedded Kafka broker and
+ * lets the real {@code TransactionEventConsumer} write them to an in-memory H2, with no Docker
+ * or network needed. Customers are picked with a Zipf skew; the mix of creates, updates and
+ * deletes, duplicate deliveries and events arriving before the create of their transaction
+ * is configurable. Prints the sustained events/s, the commit latency (from receiving an event
+ * until its write is committed) and the end-to-end freshness percentiles (from the record
+ * timestamp until the write is committed). Runs on demand:
+ * <pre>
+ * mvn test -Dtest=IngestThroughputLoadTest -DloadTests=true -Dingest.events=1000000 -Dingest.skew=1.2
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class IngestThroughputLoadTest {
+
+    private static final String TOPIC = "transaction-events";
+    private static final int PARTITIONS = 3;
+    private static final String[] CURRENCIES = {"CHF", "EUR", "USD", "GBP", "JPY"};
+    private static final String[] IBANS = {"CH9300762011623852957", "DE89370400440532013000", "GB82WEST12345698765432"};
+
+    private final int events = Integer.getInteger("ingest.events", 100_000);
+    private final int customers = Integer.getInteger("ingest.customers", 1_000);
+    private final double skew = Double.parseDouble(System.getProperty("ingest.skew", "1.1"));
+    private final double updates = Double.parseDouble(System.getProperty("ingest.updates", "0.15"));
+    private final double deletes = Double.parseDouble(System.getProperty("ingest.deletes", "0.05"));
+    private final double duplicates = Double.parseDouble(System.getProperty("ingest.duplicates", "0.02"));
+    private final double outOfOrder = Double.parseDouble(System.getProperty("ingest.out-of-order", "0.01"));
+
+    @Test
+    void ingest_ShouldReportThroughputAndFreshness() throws Exception {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaBroker(1, false, PARTITIONS, TOPIC, "exchange-rates");
+        broker.afterPropertiesSet();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=WARN",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--logging.level.org.apache.zookeeper=ERROR",
+                        "--logging.level.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:ingest-load;DB_CLOSE_DELAY=-1",
+                        "--app.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--app.kafka.transaction-topic=" + TOPIC,
+                        "--management.metrics.distribution.percentiles.transactions.ingest.freshness=0.5,0.9,0.99,0.999",
+                        "--management.metrics.distribution.percentiles.transactions.ingest.duration=0.5,0.9,0.99,0.999")) {
+
+            for (MessageListenerContainer container : context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+                if (Arrays.asList(container.getContainerProperties().getTopics()).contains(TOPIC)) {
+                    ContainerTestUtils.waitForAssignment(container, PARTITIONS);
+                }
+            }
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            List<ProducerRecord<String, String>> records = generate(new SplittableRandom(42));
+
+            long start = System.nanoTime();
+            try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                    ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                    ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                    ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                    ProducerConfig.LINGER_MS_CONFIG, 5))) {
+                for (ProducerRecord<String, String> record : records) {
+                    producer.send(record);
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(60);
+            while (consumed(meterRegistry) < records.size()) {
+                assertTrue(System.nanoTime() < deadline, "ingest did not finish");
+                Thread.sleep(50);
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%d events (%d customers, skew %.2f): %.0f events/s sustained, %.0f failed%n",
+                    records.size(), customers, skew, records.size() / elapsedSeconds, failed(meterRegistry));
+            print("commit", meterRegistry.find("transactions.ingest.duration").timer());
+            print("freshness", meterRegistry.find("transactions.ingest.freshness").timer());
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Events in publishing order. Updates and deletes target a transaction created earlier; an
+     * out-of-order event is published just before the create of its transaction.
+     */
+    private List<ProducerRecord<String, String>> generate(SplittableRandom random) {
+        TransactionDatasetGenerator.ZipfDistribution customerRanks =
+                new TransactionDatasetGenerator.ZipfDistribution(customers, skew);
+        List<String[]> created = new ArrayList<>();
+        List<ProducerRecord<String, String>> records = new ArrayList<>(events);
+
+        while (records.size() < events) {
+            double draw = random.nextDouble();
+            if (!created.isEmpty() && draw < deletes) {
+                int index = random.nextInt(created.size());
+                String[] transaction = created.get(index);
+                created.set(index, created.get(created.size() - 1));
+                created.remove(created.size() - 1);
+                records.add(record(transaction[0], transaction[1], "DELETE", random));
+            } else if (!created.isEmpty() && draw < deletes + updates) {
+                String[] transaction = created.get(random.nextInt(created.size()));
+                records.add(record(transaction[0], transaction[1], "UPDATE", random));
+            } else {
+                String customerId = TransactionDatasetGenerator.customerId(customerRanks.sample(random.nextDouble()));
+                String[] transaction = {"load-" + records.size(), customerId};
+                if (random.nextDouble() < outOfOrder) {
+                    records.add(record(transaction[0], customerId, "UPDATE", random));
+                }
+                records.add(record(transaction[0], customerId, "CREATE", random));
+                created.add(transaction);
+            }
+            if (random.nextDouble() < duplicates) {
+                records.add(records.get(records.size() - 1));
+            }
+        }
+        return records.subList(0, events);
+    }
+
+    private static ProducerRecord<String, String> record(String transactionId, String customerId, String eventType,
+                                                         SplittableRandom random) {
+        String currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(-50_000, 250_000), currency.equals("JPY") ? 0 : 2);
+        LocalDate valueDate = LocalDate.of(2024, 10, 1).plusDays(random.nextInt(31));
+        String payload = """
+                {"transactionId":"%s","amount":%s,"currency":"%s","accountIban":"%s","valueDate":"%s",\
+                "description":"Card payment","customerId":"%s","eventType":"%s"}"""
+                .formatted(transactionId, amount.toPlainString(), currency, IBANS[random.nextInt(IBANS.length)],
+                        valueDate, customerId, eventType);
+        // Keyed by transaction so the events of one transaction stay in one partition
+        return new ProducerRecord<>(TOPIC, transactionId, payload);
+    }
+
+    private static double consumed(MeterRegistry meterRegistry) {
+        return meterRegistry.get("transactions.ingest.events").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static double failed(MeterRegistry meterRegistry) {
+        return meterRegistry.get("transactions.ingest.events").tag("result", "failed").counter().count();
+    }
+
+    private static void print(String name, Timer timer) {
+        if (timer == null) {
+            System.out.printf("%-10s not recorded%n", name);
+            return;
+        }
+        StringBuilder line = new StringBuilder(String.format("%-10s mean %8.2f ms", name, timer.mean(TimeUnit.MILLISECONDS)));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            line.append(String.format("  p%s %8.2f ms",
+                    BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros().toPlainString(),
+                    percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        line.append(String.format("  max %8.2f ms", timer.max(TimeUnit.MILLISECONDS)));
+        System.out.println(line);
+    }
+}
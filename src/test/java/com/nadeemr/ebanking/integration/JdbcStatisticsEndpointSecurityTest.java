@@ -0,0 +1,68 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code /actuator/dbstats} goes through the JWT filter like the API, unlike the rest of actuator,
+ * so that admin tokens can read it and nobody else can.
+ */
+@SpringBootTest(classes = EBankingTransactionsApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:dbstats-security;DB_CLOSE_DELAY=-1",
+        "app.db-stats.enabled=true",
+        "app.feed.relay.enabled=false",
+        "logging.level.org.apache.kafka=ERROR"
+})
+@AutoConfigureMockMvc
+class JdbcStatisticsEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Test
+    void dbstats_AdminToken_ShouldBeServed() throws Exception {
+        mockMvc.perform(get("/actuator/dbstats")
+                        .header("Authorization", "Bearer " + token("P-0000000001", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requests.count").exists());
+    }
+
+    @Test
+    void dbstats_CustomerToken_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/dbstats")
+                        .header("Authorization", "Bearer " + token("P-0123456789", "CUSTOMER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void dbstats_NoToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/actuator/dbstats"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String token(String customerId, String role) {
+        return Jwts.builder()
+                .setSubject(customerId)
+                .claim("role", role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .compact();
+    }
+}
@@ -0,0 +1,107 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop load driver shared by the on-demand load tests: a fixed number of clients
+ * send requests back to back until the request budget is spent.
+ */
+final class LoadHarness {
+
+    static final String JWT_SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+
+    private LoadHarness() {
+    }
+
+    /**
+     * Transaction pages of {@code customers} customers in turn, from {@link TransactionDatasetGenerator#customerId}
+     * rank 1 on. With at least as many customers as clients, no two requests in flight are for the same
+     * query, so each one runs its own computation instead of joining an identical one in flight.
+     */
+    static IntFunction<HttpRequest> transactionPages(String baseUrl, YearMonth month, int customers) {
+        HttpRequest[] pages = new HttpRequest[customers];
+        for (int rank = 1; rank <= customers; rank++) {
+            pages[rank - 1] = HttpRequest.newBuilder(
+                            URI.create(baseUrl + "/api/v1/transactions?yearMonth=" + month + "&size=5"))
+                    .header("Authorization", "Bearer " + token(TransactionDatasetGenerator.customerId(rank), JWT_SECRET))
+                    .GET()
+                    .build();
+        }
+        return index -> pages[index % customers];
+    }
+
+    static Result drive(HttpClient client, IntFunction<HttpRequest> request, int concurrency, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request.apply(index), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES), "load run did not finish");
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(
+                requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1e6,
+                latencies[(int) Math.ceil(requests * 0.99) - 1] / 1e6,
+                errors.get());
+    }
+
+    static String token(String customerId, String jwtSecret) {
+        return Jwts.builder()
+                .setSubject(customerId)
+                .claim("role", "CUSTOMER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    static void print(String mode, Result result) {
+        System.out.printf("%-10s %12.0f %10.1f %10.1f%n", mode, result.throughput(), result.p50Ms(), result.p99Ms());
+    }
+
+    static void printHeader() {
+        System.out.printf("%-10s %12s %10s %10s%n", "mode", "requests/s", "p50 ms", "p99 ms");
+    }
+
+    record Result(double throughput, double p50Ms, double p99Ms, int errors) {
+    }
+}
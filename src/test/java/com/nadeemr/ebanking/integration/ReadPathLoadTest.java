@@ -0,0 +1,81 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.time.YearMonth;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test comparing the servlet and reactive deployment modes on the read path with
+ * many more concurrent connections than Tomcat has request threads. Rates are prefetched,
+ * so requests only wait on the database; the concurrency limit is off so that neither mode
+ * sheds any of them. Clients cycle through more customers than there are connections, so
+ * concurrent requests are never coalesced, and the servlet mode's response cache, which the
+ * reactive mode doesn't have, is off. Prints throughput and latency per mode and runs on demand: {@code mvn -Preactive test -Dtest=ReadPathLoadTest -DloadTests=true}
+ */
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class ReadPathLoadTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 10);
+    private static final int CONCURRENCY = 1_000;
+    private static final int CUSTOMERS = 2 * CONCURRENCY;
+    private static final long ROWS_PER_MONTH = 100_000;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final int CONNECTION_POOL_SIZE = 20;
+
+    @Test
+    void servletAndReactiveModes_ShouldBothServeManyConcurrentConnections() throws Exception {
+        LoadHarness.Result servlet = run(false);
+        LoadHarness.Result reactive = run(true);
+
+        LoadHarness.printHeader();
+        LoadHarness.print("servlet", servlet);
+        LoadHarness.print("reactive", reactive);
+
+        assertEquals(0, servlet.errors());
+        assertEquals(0, reactive.errors());
+    }
+
+    private LoadHarness.Result run(boolean reactive) throws Exception {
+        String database = "load-" + (reactive ? "reactive" : "servlet");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--spring.profiles.active=" + (reactive ? "reactive" : "default"),
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=WARN",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONNECTION_POOL_SIZE,
+                        "--app.limiter.enabled=false",
+                        "--app.response-cache.max-bytes=0",
+                        "--app.reactive.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                        "--app.reactive.r2dbc.pool.max-size=" + CONNECTION_POOL_SIZE)) {
+
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                new TransactionDatasetGenerator(new TransactionDatasetGenerator.Spec(
+                        CUSTOMERS, 1.1, ROWS_PER_MONTH, 0, 0, MONTH, 1, 42)).load(connection);
+            }
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            IntFunction<HttpRequest> request = LoadHarness.transactionPages(baseUrl, MONTH, CUSTOMERS);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            LoadHarness.drive(client, request, CONCURRENCY, WARMUP_REQUESTS);
+            return LoadHarness.drive(client, request, CONCURRENCY, MEASURED_REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.nadeemr.ebanking.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nadeemr.ebanking.infrastructure.capture.RequestShape;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays request shapes captured with {@code app.capture.enabled=true} against a running
+ * instance, keeping the recorded arrival times divided by {@code replay.speed}. Customer buckets
+ * become the customers of {@link TransactionDatasetGenerator} (bucket 0 is its top-ranked
+ * customer), so the instance should hold generated data; {@code replay.latest-month} moves the
+ * captured months so that the latest one lands on a month that has data.
+ * <ul>
+ *   <li>{@code open}: every request is sent at its time, however many are still in progress</li>
+ *   <li>{@code closed}: {@code replay.concurrency} clients each wait for their response before
+ *       sending the next due request; with {@code replay.speed=0} they don't wait for the
+ *       recorded times at all</li>
+ * </ul>
+ * Each endpoint gets two histograms: the service time from the moment a request was actually
+ * sent, and the latency corrected for coordinated omission, measured from the moment the trace
+ * says it should have been sent. Both are printed as percentiles, and written as {@code .hgrm}
+ * percentile distributions when {@code replay.hgrm} names a directory. For example, ten times
+ * faster than recorded:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.nadeemr.ebanking.integration.RequestReplay \
+ *     -Dexec.args="request-shapes.jsonl" -Dreplay.speed=10 -Dreplay.mode=open -Dreplay.latest-month=2024-12
+ * </pre>
+ */
+public final class RequestReplay {
+
+    private static final String ACCOUNT_IBAN = "CH9300762011623852957";
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public enum Mode { OPEN, CLOSED }
+
+    /**
+     * How to replay
+     *
+     * @param baseUrl     instance to send the requests to
+     * @param speed       how many times faster than recorded; 0 sends as fast as the clients go (closed loop only)
+     * @param mode        arrival model
+     * @param concurrency clients of the closed loop
+     * @param latestMonth month the latest captured month is moved to, {@code null} to keep the months
+     * @param jwtSecret   secret to sign the customers' tokens with
+     */
+    public record Options(String baseUrl, double speed, Mode mode, int concurrency, YearMonth latestMonth,
+                          String jwtSecret) {
+
+        public static Options fromSystemProperties() {
+            String latestMonth = System.getProperty("replay.latest-month");
+            return new Options(
+                    System.getProperty("replay.url", "http://localhost:8080"),
+                    Double.parseDouble(System.getProperty("replay.speed", "1")),
+                    Mode.valueOf(System.getProperty("replay.mode", "open").toUpperCase()),
+                    Integer.getInteger("replay.concurrency", 16),
+                    latestMonth == null ? null : YearMonth.parse(latestMonth),
+                    System.getProperty("replay.jwt-secret", LoadHarness.JWT_SECRET));
+        }
+    }
+
+    /**
+     * Latencies of one endpoint, in microseconds
+     */
+    public static final class EndpointStats {
+
+        final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Histogram corrected = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+
+        void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+            serviceTime.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+            corrected.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+            if (status == 304) {
+                notModified.incrementAndGet();
+            } else if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+            }
+        }
+
+        public Histogram serviceTime() {
+            return serviceTime;
+        }
+
+        public Histogram corrected() {
+            return corrected;
+        }
+
+        public int errors() {
+            return errors.get();
+        }
+    }
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final ConcurrentMap<Integer, String> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> eTags = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public RequestReplay(Options options, HttpClient client) {
+        if (options.speed() <= 0 && options.mode() == Mode.OPEN) {
+            throw new IllegalArgumentException("An open loop replay needs a speed above 0");
+        }
+        this.options = options;
+        this.client = client;
+    }
+
+    /**
+     * Shapes of a capture file in arrival order; shapes without a query, such as requests
+     * rejected before their body was read, are left out
+     */
+    public static List<RequestShape> read(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (Stream<String> lines = Files.lines(file)) {
+            List<RequestShape> shapes = new ArrayList<>();
+            for (String line : (Iterable<String>) lines::iterator) {
+                if (!line.isBlank()) {
+                    RequestShape shape = objectMapper.readValue(line, RequestShape.class);
+                    if (!shape.queries().isEmpty()) {
+                        shapes.add(shape);
+                    }
+                }
+            }
+            // The recorder writes in completion order
+            shapes.sort(Comparator.comparingLong(RequestShape::offsetMicros));
+            return shapes;
+        }
+    }
+
+    /**
+     * Replays the shapes and returns the latencies by endpoint once every response is in
+     */
+    public Map<String, EndpointStats> replay(List<RequestShape> shapes) throws InterruptedException {
+        long monthShift = monthShift(shapes);
+        List<HttpRequest> requests = shapes.stream()
+                .map(shape -> shifted(shape, monthShift))
+                .map(this::toRequest)
+                .toList();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long firstOffset = shapes.isEmpty() ? 0 : shapes.get(0).offsetMicros();
+        long[] intended = new long[shapes.size()];
+        for (int i = 0; i < intended.length; i++) {
+            intended[i] = options.speed() > 0
+                    ? start + (long) ((shapes.get(i).offsetMicros() - firstOffset) * 1000 / options.speed())
+                    : -1;
+        }
+
+        if (options.mode() == Mode.OPEN) {
+            List<CompletableFuture<?>> inFlight = new ArrayList<>(shapes.size());
+            for (int i = 0; i < shapes.size(); i++) {
+                RequestShape shape = shapes.get(i);
+                long intendedNanos = intended[i];
+                waitUntil(intendedNanos);
+                long sent = System.nanoTime();
+                inFlight.add(client.sendAsync(withETag(shape, requests.get(i)), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> completed(shape, response, intendedNanos, sent)));
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+            for (int c = 0; c < options.concurrency(); c++) {
+                clients.execute(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < shapes.size()) {
+                        waitUntil(intended[index]);
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = null;
+                        try {
+                            response = client.send(withETag(shapes.get(index), requests.get(index)),
+                                    HttpResponse.BodyHandlers.discarding());
+                        } catch (IOException e) {
+                            // Counted as an error below
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        completed(shapes.get(index), response, intended[index] < 0 ? sent : intended[index], sent);
+                    }
+                });
+            }
+            clients.shutdown();
+            if (!clients.awaitTermination(1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("Replay did not finish within an hour");
+            }
+        }
+        return new TreeMap<>(stats);
+    }
+
+    private void completed(RequestShape shape, HttpResponse<Void> response, long intendedNanos, long sentNanos) {
+        long done = System.nanoTime();
+        int status = response != null ? response.statusCode() : -1;
+        if (response != null) {
+            response.headers().firstValue("ETag").ifPresent(eTag -> eTags.put(eTagKey(shape), eTag));
+        }
+        stats.computeIfAbsent(shape.endpoint(), endpoint -> new EndpointStats())
+                .record(intendedNanos, sentNanos, done, status);
+    }
+
+    private HttpRequest toRequest(RequestShape shape) {
+        String[] endpoint = shape.endpoint().split(" ", 2);
+        HttpRequest.Builder builder;
+        if ("GET".equals(endpoint[0])) {
+            String query = params(shape.queries().get(0)).entrySet().stream()
+                    .map(param -> param.getKey() + "=" + URLEncoder.encode(param.getValue().toString(), StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("&"));
+            builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + endpoint[1] + "?" + query)).GET();
+        } else {
+            Object body = endpoint[1].endsWith("/batch")
+                    ? Map.of("queries", shape.queries().stream().map(RequestReplay::params).toList())
+                    : params(shape.queries().get(0));
+            try {
+                builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + endpoint[1]))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        builder.header("Authorization", "Bearer " + tokens.computeIfAbsent(shape.customerBucket(),
+                bucket -> LoadHarness.token(TransactionDatasetGenerator.customerId(bucket + 1), options.jwtSecret())));
+        return builder.build();
+    }
+
+    /**
+     * Conditional requests carry the ETag of the latest response to the same request, once there is one
+     */
+    private HttpRequest withETag(RequestShape shape, HttpRequest request) {
+        String eTag = shape.conditional() ? eTags.get(eTagKey(shape)) : null;
+        return eTag == null ? request : HttpRequest.newBuilder(request, (name, value) -> true)
+                .header("If-None-Match", eTag)
+                .build();
+    }
+
+    private static Map<String, Object> params(RequestShape.Query query) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        putIfSet(params, "yearMonth", query.yearMonth());
+        putIfSet(params, "page", query.page());
+        putIfSet(params, "size", query.size());
+        putIfSet(params, "baseCurrency", query.baseCurrency());
+        putIfSet(params, "accountIban", query.accountIban() ? ACCOUNT_IBAN : null);
+        putIfSet(params, "fields", query.fields());
+        return params;
+    }
+
+    private static void putIfSet(Map<String, Object> params, String name, Object value) {
+        if (value != null) {
+            params.put(name, value);
+        }
+    }
+
+    private static String eTagKey(RequestShape shape) {
+        return shape.customerBucket() + " " + shape.endpoint() + " " + shape.queries();
+    }
+
+    private long monthShift(List<RequestShape> shapes) {
+        if (options.latestMonth() == null) {
+            return 0;
+        }
+        return shapes.stream()
+                .flatMap(shape -> shape.queries().stream())
+                .map(RequestShape.Query::yearMonth)
+                .map(RequestReplay::yearMonth)
+                .filter(month -> month != null)
+                .max(Comparator.naturalOrder())
+                .map(latest -> ChronoUnit.MONTHS.between(latest, options.latestMonth()))
+                .orElse(0L);
+    }
+
+    private static RequestShape shifted(RequestShape shape, long months) {
+        if (months == 0) {
+            return shape;
+        }
+        List<RequestShape.Query> queries = shape.queries().stream()
+                .map(query -> {
+                    YearMonth month = yearMonth(query.yearMonth());
+                    return month == null ? query : new RequestShape.Query(month.plusMonths(months).toString(),
+                            query.page(), query.size(), query.baseCurrency(), query.accountIban(), query.fields());
+                })
+                .toList();
+        return new RequestShape(shape.offsetMicros(), shape.endpoint(), shape.customerBucket(), shape.conditional(),
+                queries, shape.status(), shape.durationMicros());
+    }
+
+    private static YearMonth yearMonth(String value) {
+        try {
+            return value == null ? null : YearMonth.parse(value);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while (nanoTime > 0 && (remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    public static void print(PrintStream out, Map<String, EndpointStats> stats, double elapsedSeconds) {
+        long total = stats.values().stream().mapToLong(endpoint -> endpoint.serviceTime.getTotalCount()).sum();
+        out.printf("%d requests in %.1f s: %.0f requests/s%n", total, elapsedSeconds, total / elapsedSeconds);
+        out.printf("%-36s %-9s %8s %6s %6s", "endpoint", "latency", "requests", "errors", "304");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", "p" + (percentile == (long) percentile ? String.valueOf((long) percentile) : percentile));
+        }
+        out.printf(" %9s%n", "max");
+        stats.forEach((endpoint, endpointStats) -> {
+            print(out, endpoint, "service", endpointStats, endpointStats.serviceTime);
+            print(out, endpoint, "corrected", endpointStats, endpointStats.corrected);
+        });
+    }
+
+    private static void print(PrintStream out, String endpoint, String latency, EndpointStats stats, Histogram histogram) {
+        out.printf("%-36s %-9s %8d %6d %6d", endpoint, latency, histogram.getTotalCount(), stats.errors.get(),
+                stats.notModified.get());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %6.1f ms", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %6.1f ms%n", histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Writes the percentile distributions, in milliseconds, one file per endpoint and histogram
+     */
+    public static void writeHistograms(Path directory, Map<String, EndpointStats> stats) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            String name = entry.getKey().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+            write(directory.resolve(name + "-service.hgrm"), entry.getValue().serviceTime);
+            write(directory.resolve(name + "-corrected.hgrm"), entry.getValue().corrected);
+        }
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: RequestReplay <capture file>");
+            System.exit(2);
+        }
+        Options options = Options.fromSystemProperties();
+        List<RequestShape> shapes = read(Path.of(args[0]));
+        System.out.printf("Replaying %d requests against %s, %s loop at %.1fx%n",
+                shapes.size(), options.baseUrl(), options.mode().name().toLowerCase(), options.speed());
+
+        ExecutorService responses = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder().executor(responses).build();
+        long start = System.nanoTime();
+        Map<String, EndpointStats> stats = new RequestReplay(options, client).replay(shapes);
+        print(System.out, stats, (System.nanoTime() - start) / 1e9);
+
+        String hgrm = System.getProperty("replay.hgrm");
+        if (hgrm != null) {
+            writeHistograms(Path.of(hgrm), stats);
+            System.out.println("Percentile distributions written to " + Path.of(hgrm).toAbsolutePath());
+        }
+        responses.shutdown();
+    }
+}
@@ -0,0 +1,128 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.infrastructure.capture.RequestShape;
+import com.nadeemr.ebanking.infrastructure.capture.RequestShapeRecorder;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trip of the workload capture: a synthetic read workload with Poisson arrivals and Zipf
+ * distributed customers is sent to an instance capturing its request shapes, and the capture is
+ * then replayed against the same instance with open and closed loop arrival at
+ * {@code replay.speed} times the recorded rate. Prints the per-endpoint percentiles of every
+ * replay. Runs on demand:
+ * <pre>
+ * mvn test -Dtest=RequestReplayLoadTest -DloadTests=true -Dreplay.speed=4
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class RequestReplayLoadTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 10);
+    private static final int CUSTOMERS = 200;
+    private static final String[] CURRENCIES = {"EUR", "CHF", "USD", "GBP"};
+
+    private final int requests = Integer.getInteger("replay.requests", 2_000);
+    private final double rate = Double.parseDouble(System.getProperty("replay.rate", "100"));
+    private final double speed = Double.parseDouble(System.getProperty("replay.speed", "2"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void capturedWorkload_ShouldReplayInOpenAndClosedLoop() throws Exception {
+        Path capture = directory.resolve("request-shapes.jsonl");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=WARN",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:replay-load;DB_CLOSE_DELAY=-1",
+                        "--app.limiter.enabled=false",
+                        "--app.capture.enabled=true",
+                        "--app.capture.file=" + capture,
+                        "--app.capture.customer-buckets=" + CUSTOMERS)) {
+
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                new TransactionDatasetGenerator(new TransactionDatasetGenerator.Spec(
+                        CUSTOMERS, 1.1, 50_000, 0, 0, MONTH, 1, 42)).load(connection);
+            }
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            record(client, baseUrl);
+            context.getBean(RequestShapeRecorder.class).close();
+            List<RequestShape> shapes = RequestReplay.read(capture);
+            assertEquals(requests, shapes.size());
+
+            for (RequestReplay.Mode mode : RequestReplay.Mode.values()) {
+                RequestReplay.Options options = new RequestReplay.Options(baseUrl, speed, mode, 16, null,
+                        LoadHarness.JWT_SECRET);
+                long start = System.nanoTime();
+                Map<String, RequestReplay.EndpointStats> stats = new RequestReplay(options, client).replay(shapes);
+                System.out.printf("%n%s loop at %.1fx%n", mode.name().toLowerCase(), speed);
+                RequestReplay.print(System.out, stats, (System.nanoTime() - start) / 1e9);
+
+                assertEquals(requests, stats.values().stream().mapToLong(s -> s.serviceTime().getTotalCount()).sum());
+                assertEquals(0, stats.values().stream().mapToInt(RequestReplay.EndpointStats::errors).sum());
+            }
+        }
+    }
+
+    /**
+     * Sends the synthetic workload at {@code replay.rate} requests/s, one request at a time
+     */
+    private void record(HttpClient client, String baseUrl) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        TransactionDatasetGenerator.ZipfDistribution customerRanks =
+                new TransactionDatasetGenerator.ZipfDistribution(CUSTOMERS, 1.1);
+        long next = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            next += (long) (-Math.log(1 - random.nextDouble()) / rate * TimeUnit.SECONDS.toNanos(1));
+            LockSupport.parkNanos(next - System.nanoTime());
+
+            String token = LoadHarness.token(TransactionDatasetGenerator.customerId(
+                    customerRanks.sample(random.nextDouble())), LoadHarness.JWT_SECRET);
+            String currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            int size = random.nextBoolean() ? 20 : 100;
+            HttpRequest.Builder request;
+            if (random.nextDouble() < 0.8) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transactions?yearMonth=" + MONTH
+                        + "&page=" + random.nextInt(3) + "&size=" + size + "&baseCurrency=" + currency)).GET();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transactions/search"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                {"yearMonth":"%s","page":0,"size":%d,"baseCurrency":"%s","fields":"summary"}"""
+                                .formatted(MONTH, size, currency)));
+            }
+            HttpResponse<Void> response = client.send(request.header("Authorization", "Bearer " + token).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.infrastructure.timing.ServerTiming;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With the request header switched off, as in the Kubernetes config, the {@code Server-Timing}
+ * header is only for admin tokens, so those have to get through to the transaction endpoints.
+ */
+@SpringBootTest(classes = EBankingTransactionsApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:server-timing-admin;DB_CLOSE_DELAY=-1",
+        "app.server-timing.enabled=true",
+        "app.server-timing.request-header=",
+        "app.feed.relay.enabled=false",
+        "logging.level.org.apache.kafka=ERROR"
+})
+@AutoConfigureMockMvc
+class ServerTimingAdminTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Test
+    void getTransactions_AdminToken_ShouldCarryServerTiming() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions")
+                        .header("Authorization", "Bearer " + token("P-0000000001", "ADMIN"))
+                        .param("yearMonth", "2024-10")
+                        .param("baseCurrency", "EUR"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTiming.HEADER, containsString("db;dur=")));
+    }
+
+    @Test
+    void getTransactions_CustomerToken_ShouldNotCarryServerTiming() throws Exception {
+        mockMvc.perform(get("/api/v1/transactions")
+                        .header("Authorization", "Bearer " + token("P-0123456789", "CUSTOMER"))
+                        .header("X-Server-Timing", "true")
+                        .param("yearMonth", "2024-10")
+                        .param("baseCurrency", "EUR"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTiming.HEADER));
+    }
+
+    private String token(String customerId, String role) {
+        return Jwts.builder()
+                .setSubject(customerId)
+                .claim("role", role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .compact();
+    }
+}
@@ -0,0 +1,93 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.testdata.TransactionDatasetGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.time.YearMonth;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load test comparing the fixed Tomcat pool with virtual-thread request execution while the
+ * exchange rate upstream is slow. Every request misses the rate store and waits on the upstream,
+ * which is the situation where the request pool rather than the CPU limits throughput. The
+ * concurrency limit is off, since shedding would cap both modes at the same level, and clients
+ * cycle through more customers than there are connections, so that concurrent requests are
+ * never coalesced into one upstream wait.
+ * Needs a Java 21 runtime and runs on demand:
+ * {@code mvn -Pjava21 test -Dtest=ThreadModelLoadTest -DloadTests=true}
+ */
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class ThreadModelLoadTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 10);
+    private static final int CONCURRENCY = 400;
+    private static final int CUSTOMERS = 2 * CONCURRENCY;
+    private static final long ROWS_PER_MONTH = 50_000;
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int MEASURED_REQUESTS = 10_000;
+    private static final int UPSTREAM_LATENCY_MS = 50;
+    private static final int TOMCAT_THREADS = 50;
+    private static final int CONNECTION_POOL_SIZE = 100;
+
+    @BeforeAll
+    static void requireVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+    }
+
+    @Test
+    void virtualThreads_ShouldOutperformThePlatformPoolWhenTheUpstreamIsSlow() throws Exception {
+        LoadHarness.Result platform = run(false);
+        LoadHarness.Result virtual = run(true);
+
+        LoadHarness.printHeader();
+        LoadHarness.print("platform", platform);
+        LoadHarness.print("virtual", virtual);
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.throughput() > platform.throughput(), "virtual threads should sustain more requests/s");
+        assertTrue(virtual.p99Ms() < platform.p99Ms(), "virtual threads should have a lower p99");
+    }
+
+    private LoadHarness.Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EBankingTransactionsApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.nadeemr.ebanking=WARN",
+                        "--logging.level.org.apache.kafka=ERROR",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONNECTION_POOL_SIZE,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--app.threads.virtual.enabled=" + virtualThreads,
+                        "--app.limiter.enabled=false",
+                        "--app.fx.prefetch.enabled=false",
+                        "--app.fx.mock.latency-ms=" + UPSTREAM_LATENCY_MS)) {
+
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                new TransactionDatasetGenerator(new TransactionDatasetGenerator.Spec(
+                        CUSTOMERS, 1.1, ROWS_PER_MONTH, 0, 0, MONTH, 1, 42)).load(connection);
+            }
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            IntFunction<HttpRequest> request = LoadHarness.transactionPages(baseUrl, MONTH, CUSTOMERS);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            LoadHarness.drive(client, request, CONCURRENCY, WARMUP_REQUESTS);
+            return LoadHarness.drive(client, request, CONCURRENCY, MEASURED_REQUESTS);
+        }
+    }
+}
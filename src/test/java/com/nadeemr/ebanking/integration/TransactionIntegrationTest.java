@@ -3,6 +3,7 @@ package com.nadeemr.ebanking.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nadeemr.ebanking.EBankingTransactionsApplication;
 import com.nadeemr.ebanking.api.dto.TransactionPageDto;
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
 import com.nadeemr.ebanking.infrastructure.messaging.TransactionEvent;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -96,7 +97,7 @@ class TransactionIntegrationTest {
         TransactionEvent event = new TransactionEvent(
             "test-transaction-id",
             new BigDecimal("150.75"),
-            "EUR",
+            CurrencyRegistry.resolve("EUR"),
             "DE89370400440532013000",
             LocalDate.now(),
             "Integration test transaction",
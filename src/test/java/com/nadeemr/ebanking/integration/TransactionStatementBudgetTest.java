@@ -0,0 +1,78 @@
+package com.nadeemr.ebanking.integration;
+
+import com.nadeemr.ebanking.EBankingTransactionsApplication;
+import com.nadeemr.ebanking.infrastructure.jdbc.JdbcStatistics;
+import com.nadeemr.ebanking.infrastructure.jdbc.RequestStatements;
+import com.nadeemr.ebanking.infrastructure.jdbc.StatementBudget;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keeps the number of statements behind a transaction page from creeping up: a lazy association
+ * or an extra lookup added to the read path fails here, listing the statements of the request.
+ */
+@SpringBootTest(classes = EBankingTransactionsApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;DB_CLOSE_DELAY=-1",
+        "app.db-stats.enabled=true",
+        "app.feed.relay.enabled=false",
+        "logging.level.org.apache.kafka=ERROR"
+})
+@AutoConfigureMockMvc
+class TransactionStatementBudgetTest {
+
+    // The month's version for the ETag and the cache key, the page, its count and the month's rows
+    // for the summary
+    private static final int GET_TRANSACTIONS_STATEMENTS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcStatistics jdbcStatistics;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Test
+    void getTransactions_ShouldStayWithinItsStatementBudget() throws Exception {
+        List<RequestStatements> requests;
+        try (StatementBudget budget = StatementBudget.perRequest(jdbcStatistics, GET_TRANSACTIONS_STATEMENTS)) {
+            mockMvc.perform(get("/api/v1/transactions")
+                            .header("Authorization", "Bearer " + token("P-0123456789"))
+                            .param("yearMonth", "2024-10")
+                            .param("page", "0")
+                            .param("size", "2")
+                            .param("baseCurrency", "EUR"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transactions.length()").value(2));
+            requests = budget.requests();
+        }
+
+        assertEquals(1, requests.size());
+        assertEquals("GET /api/v1/transactions", requests.get(0).name());
+    }
+
+    private String token(String customerId) {
+        return Jwts.builder()
+                .setSubject(customerId)
+                .claim("role", "CUSTOMER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .compact();
+    }
+}
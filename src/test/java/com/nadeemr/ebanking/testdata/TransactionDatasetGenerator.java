@@ -0,0 +1,342 @@
+package com.nadeemr.ebanking.testdata;
+
+import com.nadeemr.ebanking.domain.model.CurrencyRegistry;
+import com.nadeemr.ebanking.domain.model.CurrencyUnit;
+import com.nadeemr.ebanking.domain.model.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic transactions at production scale, for benchmarks and load tests. Retail customers
+ * get rows after a Zipf distribution over their rank, so a few customers are heavy and most
+ * are light; a handful of corporate customers each book {@code corporateRowsPerMonth} rows a
+ * month over many accounts. Every customer has a home country whose currency dominates its
+ * transactions. The output only depends on the {@link Spec}, so runs are repeatable.
+ * <p>
+ * Customer ids are {@code P-} followed by the ten digit rank: retail customers start at
+ * {@code P-0000000001} (the heaviest), corporate customers at {@code P-9000000001}.
+ * <p>
+ * {@link #load} writes straight to the {@code transactions} table, through {@code COPY} on
+ * PostgreSQL and batched inserts otherwise. It can be run against any database too:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.nadeemr.ebanking.testdata.TransactionDatasetGenerator \
+ *     -Dexec.args="jdbc:postgresql://localhost:5432/ebanking ebanking_user ebanking_password 20000000"
+ * </pre>
+ */
+public final class TransactionDatasetGenerator {
+
+    private static final String INSERT = "INSERT INTO transactions (id, amount, currency, account_iban, value_date, "
+            + "description, customer_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COPY = "COPY transactions (id, amount, currency, account_iban, value_date, "
+            + "description, customer_id, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+    private static final int BATCH_SIZE = 10_000;
+
+    /**
+     * Home countries with their share of the customers and their currency
+     */
+    private static final String[] COUNTRIES = {"CH", "DE", "GB", "US"};
+    private static final double[] COUNTRY_SHARES = {0.6, 0.25, 0.1, 0.05};
+    private static final String[] HOME_CURRENCIES = {"CHF", "EUR", "GBP", "USD"};
+    private static final String[] CURRENCIES = {"CHF", "EUR", "USD", "GBP", "JPY"};
+
+    private static final String[] DEBIT_DESCRIPTIONS = {"Card payment", "Online payment", "ATM withdrawal", "Standing order", "Direct debit"};
+    private static final String[] CREDIT_DESCRIPTIONS = {"Salary payment", "Incoming transfer", "Refund", "Interest"};
+
+    /**
+     * What to generate
+     *
+     * @param customers             retail customers
+     * @param skew                  Zipf exponent of the retail rows over the customers' ranks
+     * @param rowsPerMonth          retail rows per month, over all retail customers
+     * @param corporateCustomers    customers with {@code corporateRowsPerMonth} rows each month
+     * @param corporateRowsPerMonth rows of each corporate customer per month
+     * @param firstMonth            first month with transactions
+     * @param months                number of consecutive months
+     * @param seed                  seed of the random choices
+     */
+    public record Spec(int customers, double skew, long rowsPerMonth, int corporateCustomers,
+                       int corporateRowsPerMonth, YearMonth firstMonth, int months, long seed) {
+
+        /**
+         * About {@code totalRows} rows over 12 months, a fifth of them from 5 corporate customers
+         */
+        public static Spec ofTotalRows(long totalRows) {
+            int months = 12;
+            int corporateCustomers = 5;
+            int corporateRowsPerMonth = (int) Math.min(100_000, totalRows / 5 / months / corporateCustomers);
+            long rowsPerMonth = Math.max(1, (totalRows - (long) corporateCustomers * corporateRowsPerMonth * months) / months);
+            int customers = (int) Math.max(10, Math.min(2_000_000, rowsPerMonth / 20));
+            return new Spec(customers, 1.1, rowsPerMonth, corporateCustomers, corporateRowsPerMonth,
+                    YearMonth.of(2024, 1), months, 42);
+        }
+
+        public long totalRows() {
+            return (rowsPerMonth + (long) corporateCustomers * corporateRowsPerMonth) * months;
+        }
+    }
+
+    private final Spec spec;
+    private final ZipfDistribution retailRanks;
+
+    public TransactionDatasetGenerator(Spec spec) {
+        this.spec = spec;
+        this.retailRanks = new ZipfDistribution(spec.customers(), spec.skew());
+    }
+
+    public static String customerId(int rank) {
+        return String.format("P-%010d", rank);
+    }
+
+    public static String corporateCustomerId(int index) {
+        return String.format("P-%010d", 9_000_000_000L + index);
+    }
+
+    /**
+     * Every transaction of the dataset, month by month
+     */
+    public void forEach(Consumer<Transaction> sink) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        long sequence = 0;
+        for (int m = 0; m < spec.months(); m++) {
+            YearMonth month = spec.firstMonth().plusMonths(m);
+            for (int c = 1; c <= spec.corporateCustomers(); c++) {
+                Customer customer = corporate(c);
+                for (int i = 0; i < spec.corporateRowsPerMonth(); i++) {
+                    sink.accept(transaction(sequence++, customer, month, random));
+                }
+            }
+            for (long i = 0; i < spec.rowsPerMonth(); i++) {
+                Customer customer = retail(retailRanks.sample(random.nextDouble()));
+                sink.accept(transaction(sequence++, customer, month, random));
+            }
+        }
+    }
+
+    /**
+     * One month of a single customer with the given number of rows and the retail currency mix
+     */
+    public static List<Transaction> customerMonth(String customerId, YearMonth month, int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Customer customer = customer(customerId, seed, 4);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(transaction(i, customer, month, random));
+        }
+        return transactions;
+    }
+
+    /**
+     * Insert the dataset into the {@code transactions} table, committing as it goes
+     *
+     * @return the number of rows inserted
+     */
+    public long load(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            return connection.isWrapperFor(PGConnection.class) ? copy(connection) : insert(connection);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long insert(Connection connection) throws SQLException {
+        long[] rows = {0};
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            forEach(transaction -> {
+                try {
+                    statement.setString(1, transaction.getId());
+                    statement.setBigDecimal(2, transaction.getAmount());
+                    statement.setString(3, transaction.getCurrency().getCode());
+                    statement.setString(4, transaction.getAccountIban());
+                    statement.setDate(5, Date.valueOf(transaction.getValueDate()));
+                    statement.setString(6, transaction.getDescription());
+                    statement.setString(7, transaction.getCustomerId());
+                    statement.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedAt()));
+                    statement.setTimestamp(9, Timestamp.valueOf(transaction.getUpdatedAt()));
+                    statement.addBatch();
+                    if (++rows[0] % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to insert generated transactions", e);
+                }
+            });
+            statement.executeBatch();
+            connection.commit();
+        }
+        return rows[0];
+    }
+
+    private long copy(Connection connection) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        StringBuilder chunk = new StringBuilder(BATCH_SIZE * 160);
+        long[] rows = {0};
+        forEach(transaction -> {
+            chunk.append(transaction.getId()).append(',')
+                    .append(transaction.getAmount().toPlainString()).append(',')
+                    .append(transaction.getCurrency().getCode()).append(',')
+                    .append(transaction.getAccountIban()).append(',')
+                    .append(transaction.getValueDate()).append(',')
+                    .append(transaction.getDescription()).append(',')
+                    .append(transaction.getCustomerId()).append(',')
+                    .append(transaction.getCreatedAt()).append(',')
+                    .append(transaction.getUpdatedAt()).append('\n');
+            if (++rows[0] % BATCH_SIZE == 0) {
+                copyChunk(copyManager, connection, chunk);
+            }
+        });
+        copyChunk(copyManager, connection, chunk);
+        return rows[0];
+    }
+
+    private static void copyChunk(CopyManager copyManager, Connection connection, StringBuilder chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            copyManager.copyIn(COPY, new StringReader(chunk.toString()));
+            connection.commit();
+            chunk.setLength(0);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to copy generated transactions", e);
+        }
+    }
+
+    /**
+     * A customer's country and accounts, the same for every month. Account IBANs are derived
+     * when a transaction is booked on them, so a customer costs nothing to keep around.
+     */
+    private record Customer(String id, int country, int accounts, long seed) {
+
+        String iban(int account) {
+            SplittableRandom random = new SplittableRandom(seed + account);
+            return String.format("%s%02d%04d%07d%05d", COUNTRIES[country], 10 + random.nextInt(90),
+                    random.nextInt(10_000), random.nextInt(10_000_000), random.nextInt(100_000));
+        }
+    }
+
+    private Customer retail(int rank) {
+        // Heavier customers tend to hold more accounts
+        return customer(customerId(rank), spec.seed() + rank, rank <= 100 ? 8 : 3);
+    }
+
+    private Customer corporate(int index) {
+        return customer(corporateCustomerId(index), spec.seed() - index, 150);
+    }
+
+    private static Customer customer(String customerId, long seed, int maxAccounts) {
+        long customerSeed = seed ^ customerId.hashCode();
+        SplittableRandom random = new SplittableRandom(customerSeed);
+        return new Customer(customerId, pick(COUNTRY_SHARES, random.nextDouble()), 1 + random.nextInt(maxAccounts),
+                customerSeed);
+    }
+
+    private static Transaction transaction(long sequence, Customer customer, YearMonth month, SplittableRandom random) {
+        // Mostly the home currency, the rest spread over the others
+        String currencyCode = random.nextDouble() < 0.8
+                ? HOME_CURRENCIES[customer.country()]
+                : CURRENCIES[random.nextInt(CURRENCIES.length)];
+        CurrencyUnit currency = CurrencyRegistry.resolve(currencyCode);
+
+        // Log-normal amounts: mostly small card payments, fewer but larger credits
+        boolean credit = random.nextDouble() < 0.15;
+        double magnitude = Math.exp(random.nextGaussian() * 1.2 + (credit ? 6.5 : 3.5));
+        if (currencyCode.equals("JPY")) {
+            magnitude *= 150;
+        }
+        BigDecimal amount = BigDecimal.valueOf(Math.max(1, Math.round(magnitude * 100)), 2)
+                .setScale(currency.getMinorUnitDigits(), RoundingMode.HALF_EVEN);
+
+        int day = 1 + random.nextInt(month.lengthOfMonth());
+        LocalDateTime createdAt = month.atDay(day).atTime(random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        String[] descriptions = credit ? CREDIT_DESCRIPTIONS : DEBIT_DESCRIPTIONS;
+
+        Transaction transaction = new Transaction(
+                "gen-" + sequence,
+                credit ? amount : amount.negate(),
+                currency,
+                customer.iban(random.nextInt(customer.accounts())),
+                createdAt.toLocalDate(),
+                descriptions[random.nextInt(descriptions.length)],
+                customer.id());
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(createdAt);
+        return transaction;
+    }
+
+    private static int pick(double[] shares, double draw) {
+        double cumulative = 0;
+        for (int i = 0; i < shares.length; i++) {
+            cumulative += shares[i];
+            if (draw < cumulative) {
+                return i;
+            }
+        }
+        return shares.length - 1;
+    }
+
+    /**
+     * Zipf distribution over the ranks 1..size, sampled by inverting its CDF
+     */
+    public static final class ZipfDistribution {
+
+        private final double[] cdf;
+
+        public ZipfDistribution(int size, double exponent) {
+            cdf = new double[size];
+            double total = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                total += 1 / Math.pow(rank, exponent);
+                cdf[rank - 1] = total;
+            }
+            for (int i = 0; i < size; i++) {
+                cdf[i] /= total;
+            }
+        }
+
+        /**
+         * @param draw a uniform value in [0, 1)
+         * @return a rank between 1 and the size
+         */
+        public int sample(double draw) {
+            int index = Arrays.binarySearch(cdf, draw);
+            return 1 + (index >= 0 ? index : Math.min(-index - 1, cdf.length - 1));
+        }
+    }
+
+    /**
+     * Load a dataset of the given size: {@code <jdbc url> <user> <password> <total rows>}
+     */
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: <jdbc url> <user> <password> <total rows>");
+        }
+        TransactionDatasetGenerator generator = new TransactionDatasetGenerator(Spec.ofTotalRows(Long.parseLong(args[3])));
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            long rows = generator.load(connection);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Loaded %d transactions in %.1f s (%.0f rows/s)%n", rows, seconds, rows / seconds);
+        }
+    }
+}